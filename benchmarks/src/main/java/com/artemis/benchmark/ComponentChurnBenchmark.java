@@ -0,0 +1,83 @@
+package com.artemis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.artemis.Entity;
+import com.artemis.World;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Measures Entity.addComponent and Entity.removeComponent on entities that
+ * are already in the world, including the resulting system re-checks.
+ * One operation is one add followed by one remove.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ComponentChurnBenchmark {
+
+    static final int BATCH = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int entityCount;
+
+    World world;
+    Array<Entity> entities;
+    int next;
+
+    @Setup
+    public void setup() {
+        world = new World();
+        world.setSystem(new MovementSystem());
+        world.setSystem(new HealthSystem());
+        world.initialize();
+
+        entities = new Array<Entity>(entityCount);
+        for (int i = 0; i < entityCount; i++) {
+            Entity e = world.createEntity();
+            e.addComponent(world.createComponent(Position.class));
+            e.addComponent(world.createComponent(Velocity.class));
+            e.addToWorld();
+            entities.add(e);
+        }
+        world.process();
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void addAndRemove() {
+        int start = next;
+        for (int i = 0; i < BATCH; i++) {
+            entities.get((start + i) % entityCount).addComponent(world.createComponent(Health.class));
+        }
+        world.process();
+
+        for (int i = 0; i < BATCH; i++) {
+            entities.get((start + i) % entityCount).removeComponent(Health.class);
+        }
+        world.process();
+        next = (start + BATCH) % entityCount;
+    }
+}
@@ -0,0 +1,70 @@
+package com.artemis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.artemis.ComponentMapper;
+import com.artemis.Entity;
+import com.artemis.World;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Measures ComponentMapper.get over every entity in the world.
+ * The score is the number of full passes per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ComponentMapperBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int entityCount;
+
+    World world;
+    ComponentMapper<Position> positionMapper;
+    Array<Entity> entities;
+
+    @Setup
+    public void setup() {
+        world = new World();
+        world.initialize();
+        positionMapper = world.getMapper(Position.class);
+
+        entities = new Array<Entity>(entityCount);
+        for (int i = 0; i < entityCount; i++) {
+            Entity e = world.createEntity();
+            e.addComponent(world.createComponent(Position.class));
+            e.addToWorld();
+            entities.add(e);
+        }
+        world.process();
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (int i = 0, s = entities.size; s > i; i++) {
+            blackhole.consume(positionMapper.get(entities.get(i)));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.artemis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.artemis.Entity;
+import com.artemis.EntityTemplate;
+import com.artemis.World;
+import com.artemis.managers.EntityManager;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Measures creating a wave of entities through EntityManager.createEntityInstance,
+ * adding them to the world and deleting them again through World.deleteEntity.
+ * createBatchAndDelete does the same through World.createEntities.
+ * One operation is the full life cycle of a single entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EntityChurnBenchmark {
+
+    static final int WAVE = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int entityCount;
+
+    World world;
+    EntityManager entityManager;
+    Array<Entity> wave;
+    EntityTemplate template;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup() {
+        world = new World();
+        world.setSystem(new MovementSystem());
+        world.setSystem(new HealthSystem());
+        world.initialize();
+        entityManager = world.getEntityManager();
+        wave = new Array<Entity>(WAVE);
+        template = new EntityTemplate(Position.class, Velocity.class, Health.class);
+
+        // background population the churn happens against
+        for (int i = 0; i < entityCount; i++) {
+            Entity e = entityManager.createEntityInstance();
+            e.addComponent(world.createComponent(Position.class));
+            e.addComponent(world.createComponent(Velocity.class));
+            e.addToWorld();
+        }
+        world.process();
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WAVE)
+    public void createAndDelete() {
+        for (int i = 0; i < WAVE; i++) {
+            Entity e = entityManager.createEntityInstance();
+            e.addComponent(world.createComponent(Position.class));
+            e.addComponent(world.createComponent(Velocity.class));
+            e.addComponent(world.createComponent(Health.class));
+            e.addToWorld();
+            wave.add(e);
+        }
+        world.process();
+
+        for (int i = 0; i < wave.size; i++) {
+            world.deleteEntity(wave.get(i));
+        }
+        wave.clear();
+        world.process();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WAVE)
+    public void createBatchAndDelete() {
+        world.createEntities(template, WAVE, wave);
+        world.process();
+
+        for (int i = 0; i < wave.size; i++) {
+            world.deleteEntity(wave.get(i));
+        }
+        wave.clear();
+        world.process();
+    }
+}
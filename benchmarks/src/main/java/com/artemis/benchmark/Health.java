@@ -0,0 +1,15 @@
+package com.artemis.benchmark;
+
+import com.artemis.Component;
+
+/**
+ * Component that gets added and removed by the churn benchmarks.
+ */
+public class Health implements Component {
+    public int value;
+
+    @Override
+    public void reset() {
+        value = 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.artemis.benchmark;
+
+import com.artemis.ComponentMapper;
+import com.artemis.Entity;
+import com.artemis.Filter;
+import com.artemis.systems.EntityProcessingSystem;
+
+/**
+ * Second system so that World.process() walks more than one system.
+ */
+public class HealthSystem extends EntityProcessingSystem {
+
+    ComponentMapper<Health> healthMapper;
+
+    @SuppressWarnings("unchecked")
+    public HealthSystem() {
+        super(Filter.allComponents(Health.class));
+    }
+
+    @Override
+    public void initialize() {
+        healthMapper = world.getMapper(Health.class);
+    }
+
+    @Override
+    protected void process(Entity e) {
+        healthMapper.get(e).value++;
+    }
+}
@@ -0,0 +1,34 @@
+package com.artemis.benchmark;
+
+import com.artemis.ComponentMapper;
+import com.artemis.Entity;
+import com.artemis.Filter;
+import com.artemis.systems.EntityProcessingSystem;
+
+/**
+ * Typical "integrate velocity" system: reads Velocity, writes Position.
+ */
+public class MovementSystem extends EntityProcessingSystem {
+
+    ComponentMapper<Position> positionMapper;
+    ComponentMapper<Velocity> velocityMapper;
+
+    @SuppressWarnings("unchecked")
+    public MovementSystem() {
+        super(Filter.allComponents(Position.class, Velocity.class));
+    }
+
+    @Override
+    public void initialize() {
+        positionMapper = world.getMapper(Position.class);
+        velocityMapper = world.getMapper(Velocity.class);
+    }
+
+    @Override
+    protected void process(Entity e) {
+        Position position = positionMapper.get(e);
+        Velocity velocity = velocityMapper.get(e);
+        position.x += velocity.x * world.getDelta();
+        position.y += velocity.y * world.getDelta();
+    }
+}
@@ -0,0 +1,17 @@
+package com.artemis.benchmark;
+
+import com.artemis.Component;
+
+/**
+ * Simple position component used by the benchmarks.
+ */
+public class Position implements Component {
+    public float x;
+    public float y;
+
+    @Override
+    public void reset() {
+        x = 0;
+        y = 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.artemis.benchmark;
+
+import com.artemis.Component;
+
+/**
+ * Simple velocity component used by the benchmarks.
+ */
+public class Velocity implements Component {
+    public float x;
+    public float y;
+
+    @Override
+    public void reset() {
+        x = 0;
+        y = 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.artemis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.artemis.Entity;
+import com.artemis.World;
+
+/**
+ * Measures a steady state World.process() with no entity changes
+ * between frames.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class WorldProcessBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int entityCount;
+
+    World world;
+
+    @Setup
+    public void setup() {
+        world = new World();
+        world.setSystem(new MovementSystem());
+        world.setSystem(new HealthSystem());
+        world.initialize();
+
+        for (int i = 0; i < entityCount; i++) {
+            Entity e = world.createEntity();
+            Position position = world.createComponent(Position.class);
+            Velocity velocity = world.createComponent(Velocity.class);
+            velocity.x = 1;
+            velocity.y = 1;
+            e.addComponent(position);
+            e.addComponent(velocity);
+            if (i % 2 == 0) {
+                e.addComponent(world.createComponent(Health.class));
+            }
+            e.addToWorld();
+        }
+
+        world.setDelta(1 / 60f);
+        world.process();
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public void process() {
+        world.process();
+    }
+}
@@ -0,0 +1,116 @@
+package com.artemis;
+
+import com.artemis.systems.EntitySystem;
+import com.artemis.utils.SafeArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Caches which systems are interested in each archetype, an archetype
+ * being a distinct set of components.
+ *
+ * When an entity is added, changed or enabled, the systems interested
+ * in its archetype are compared with the systems the entity currently
+ * belongs to. Only the systems that differ are touched, so filters are
+ * evaluated once per archetype instead of once per entity and system.
+ *
+ * The index must be invalidated with clear() whenever systems are
+ * added to or removed from the world.
+ */
+public class ArchetypeIndex {
+
+    protected final Array<EntitySystem> systems;
+    protected final SafeArray<EntitySystem> systemsByIndex;
+    protected final ObjectMap<Bits, Bits> interestedSystems;
+    protected final Bits toggled;
+
+    protected boolean dirty;
+
+    /**
+     * Create an index over the specified systems.
+     *
+     * @param systems Systems of the world, the array is referenced and not copied.
+     */
+    public ArchetypeIndex(Array<EntitySystem> systems) {
+        this.systems = systems;
+        systemsByIndex = new SafeArray<EntitySystem>();
+        interestedSystems = new ObjectMap<Bits, Bits>();
+        toggled = new Bits();
+        dirty = true;
+    }
+
+    /**
+     * Inserts the entity into the systems interested in it, and removes
+     * it from the systems no longer interested in it.
+     *
+     * @param e Entity to check.
+     */
+    public void check(Entity e) {
+        Bits interested = getInterestedSystems(e.getComponentBits());
+
+        toggled.clear();
+        toggled.or(interested);
+        toggled.xor(e.getSystemBits());
+
+        for (int i = toggled.nextSetBit(0); i >= 0; i = toggled.nextSetBit(i + 1)) {
+            EntitySystem system = systemsByIndex.get(i);
+            if (system != null) {
+                system.updateMembership(e, interested.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the indices of the systems interested in entities
+     * with the specified components.
+     *
+     * @param componentBits Component bits of the archetype.
+     * @return system bits of the interested systems, must not be modified.
+     */
+    public Bits getInterestedSystems(Bits componentBits) {
+        if (dirty) {
+            rebuild();
+        }
+
+        Bits interested = interestedSystems.get(componentBits);
+        if (interested == null) {
+            Bits archetype = new Bits();
+            archetype.or(componentBits);
+
+            interested = new Bits();
+            for (int i = 0; i < systems.size; i++) {
+                EntitySystem system = systems.get(i);
+                if (system.isInterested(archetype)) {
+                    interested.set(system.getSystemIndex());
+                }
+            }
+            interestedSystems.put(archetype, interested);
+        }
+        return interested;
+    }
+
+    /**
+     * @return number of archetypes currently cached.
+     */
+    public int size() {
+        return interestedSystems.size;
+    }
+
+    /**
+     * Invalidate the index, must be called when the world's systems change.
+     */
+    public void clear() {
+        dirty = true;
+    }
+
+    protected void rebuild() {
+        interestedSystems.clear();
+        systemsByIndex.clear();
+        for (int i = 0; i < systems.size; i++) {
+            EntitySystem system = systems.get(i);
+            systemsByIndex.set(system.getSystemIndex(), system);
+        }
+        dirty = false;
+    }
+}
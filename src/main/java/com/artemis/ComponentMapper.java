@@ -1,6 +1,6 @@
 package com.artemis;
 
-import com.badlogic.gdx.utils.Array;
+import com.artemis.utils.ComponentStorage;
 
 
 /**
@@ -13,10 +13,18 @@ import com.badlogic.gdx.utils.Array;
  */
 public class ComponentMapper<A extends Component> {
 
-    private Array<A> components;
+    private ComponentStorage<A> components;
 
+    /**
+     * @param type Component class, must use a storage that keeps component instances.
+     * @param world World the components belong to.
+     */
     public ComponentMapper(Class<A> type, World world) {
-        components = world.getComponentManager().getComponents(type);
+        components = world.getComponentManager().getStorage(type);
+        if (!components.storesInstances()) {
+            throw new IllegalStateException(type.getName()
+                    + " does not keep component instances, use a PrimitiveComponentMapper.");
+        }
     }
 
     /**
@@ -39,10 +47,7 @@ public class ComponentMapper<A extends Component> {
      * @return the instance of the component
      */
     public A getSafe(Entity e) {
-        if(e.id < components.size) {
-            return components.get(e.id);
-        }
-        return null;
+        return components.get(e.id);
     }
 
     /**
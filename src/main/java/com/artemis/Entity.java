@@ -83,6 +83,11 @@ public final class Entity implements Poolable {
     /**
      * Add a component to this entity.
      * 
+     * The entity takes over the component and returns it to the pool once
+     * it is removed, unless the type uses a storage that copies the data,
+     * e.g. an ArrayComponentStorage. Such a component stays with the
+     * caller and can be reused, e.g. as a prototype for more entities.
+     * 
      * @param component to add to this entity
      * 
      * @return this entity for chaining.
@@ -0,0 +1,64 @@
+package com.artemis;
+
+import com.artemis.managers.ComponentManager;
+import com.badlogic.gdx.utils.Bits;
+
+/**
+ * A set of component types used to create batches of entities
+ * through World.createEntities().
+ *
+ * The component class indices are resolved once when the template
+ * is created, so a template should be kept and reused for every
+ * batch of the same kind of entity.
+ */
+public class EntityTemplate {
+
+    protected final Class<? extends Component>[] types;
+    protected final int[] classIndices;
+    protected final Bits componentBits;
+
+    /**
+     * Create a template for entities with the specified components.
+     *
+     * @param types Component types of the entities.
+     */
+    public EntityTemplate(Class<? extends Component>... types) {
+        this.types = types;
+        classIndices = new int[types.length];
+        componentBits = new Bits();
+        for (int i = 0; i < types.length; i++) {
+            classIndices[i] = ComponentManager.getComponentClassIndex(types[i]);
+            componentBits.set(classIndices[i]);
+        }
+    }
+
+    /**
+     * @return number of component types in the template.
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * @param index Index of the component type in the template.
+     * @return component type at the index.
+     */
+    public Class<? extends Component> getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * @param index Index of the component type in the template.
+     * @return component class index of the type at the index.
+     */
+    public int getClassIndex(int index) {
+        return classIndices[index];
+    }
+
+    /**
+     * @return component bits of entities created from the template.
+     */
+    public Bits getComponentBits() {
+        return componentBits;
+    }
+}
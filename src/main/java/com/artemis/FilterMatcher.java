@@ -0,0 +1,68 @@
+package com.artemis;
+
+import com.badlogic.gdx.utils.Bits;
+
+/**
+ * A compiled form of a Filter, used by systems to test entities.
+ * 
+ * The filter's component sets are copied when the matcher is created,
+ * so later changes to the Filter do not affect it. Matching is done
+ * with word-wise operations over the entity's component bits
+ * (Bits.containsAll and Bits.intersects), instead of testing the
+ * component bits one by one. Empty sets are skipped entirely.
+ */
+public final class FilterMatcher {
+
+    private final Bits allSet;
+    private final Bits anySet;
+    private final Bits exclusionSet;
+
+    private final boolean hasAll;
+    private final boolean hasAny;
+    private final boolean hasExclusion;
+
+    /**
+     * Compiles the specified filter.
+     * 
+     * @param filter Filter to compile.
+     */
+    public FilterMatcher(Filter filter) {
+        allSet = copy(filter.allSet);
+        anySet = copy(filter.anySet);
+        exclusionSet = copy(filter.exclusionSet);
+
+        hasAll = !allSet.isEmpty();
+        hasAny = !anySet.isEmpty();
+        hasExclusion = !exclusionSet.isEmpty();
+    }
+
+    /**
+     * Checks whether an entity with the specified components matches the filter.
+     * 
+     * @param componentBits Component bits of the entity.
+     * @return true if the entity matches, false otherwise.
+     */
+    public boolean matches(Bits componentBits) {
+        if (hasAll && !componentBits.containsAll(allSet)) {
+            return false;
+        }
+        if (hasAny && !anySet.intersects(componentBits)) {
+            return false;
+        }
+        return !hasExclusion || !exclusionSet.intersects(componentBits);
+    }
+
+    /**
+     * @return Returns true if the filter has neither "all" nor "any"
+     * components, in which case no entity is of interest.
+     */
+    public boolean isEmpty() {
+        return !hasAll && !hasAny;
+    }
+
+    private static Bits copy(Bits bits) {
+        Bits copy = new Bits();
+        copy.or(bits);
+        return copy;
+    }
+}
@@ -0,0 +1,152 @@
+package com.artemis;
+
+import com.artemis.systems.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Runs a world with a fixed timestep instead of the frame delta.
+ *
+ * The frame deltas are accumulated and World.process() is called once for
+ * every full step, always with the step as delta, so the simulation is
+ * deterministic no matter how the frames are timed. At most maxSubSteps
+ * steps are run per frame; time that can't be caught up within them is
+ * dropped, so a load spike doesn't make later frames even slower.
+ *
+ * Frame systems are passive systems that run once per frame after the
+ * steps, with the frame delta. Rendering systems belong there, they can
+ * use getAlpha() to interpolate between the last two steps.
+ */
+public class FixedTimestepRunner {
+
+    protected final World world;
+    protected final float step;
+    protected int maxSubSteps;
+
+    protected Array<EntitySystem> frameSystems;
+
+    protected double accumulator;
+    protected float alpha;
+    protected long steps;
+    protected double droppedTime;
+
+    /**
+     * Create a runner that runs at most 5 steps per frame.
+     *
+     * @param world World to run.
+     * @param step Fixed delta of every step.
+     */
+    public FixedTimestepRunner(World world, float step) {
+        this(world, step, 5);
+    }
+
+    /**
+     * Create a runner.
+     *
+     * @param world World to run.
+     * @param step Fixed delta of every step.
+     * @param maxSubSteps Maximum number of steps run per frame.
+     */
+    public FixedTimestepRunner(World world, float step, int maxSubSteps) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Step must be positive: " + step);
+        }
+        this.world = world;
+        this.step = step;
+        setMaxSubSteps(maxSubSteps);
+        frameSystems = new Array<EntitySystem>();
+    }
+
+    /**
+     * Adds a system to the world that runs once per frame instead of once
+     * per step. It is set as passive, so World.process() skips it.
+     *
+     * @param <T> Type of the system.
+     * @param system System to run once per frame.
+     * @return the added system.
+     */
+    public <T extends EntitySystem> T setFrameSystem(T system) {
+        world.setSystem(system, true);
+        frameSystems.add(system);
+        return system;
+    }
+
+    /**
+     * Runs the steps the accumulated time allows, then the frame systems.
+     *
+     * @param frameDelta Time since the last frame.
+     * @return number of steps run.
+     */
+    public int update(float frameDelta) {
+        accumulator += frameDelta;
+
+        int subSteps = 0;
+        while (accumulator >= step && subSteps < maxSubSteps) {
+            world.setDelta(step);
+            world.process();
+            accumulator -= step;
+            subSteps++;
+        }
+        steps += subSteps;
+
+        if (accumulator >= step) {
+            // keep the fraction of a step, drop the rest
+            double dropped = Math.floor(accumulator / step) * step;
+            accumulator -= dropped;
+            droppedTime += dropped;
+        }
+        alpha = (float) (accumulator / step);
+
+        world.setDelta(frameDelta);
+        for (int i = 0; i < frameSystems.size; i++) {
+            frameSystems.get(i).process();
+        }
+        return subSteps;
+    }
+
+    /**
+     * Fraction of a step accumulated since the last step, from 0 to 1.
+     * Rendering can interpolate between the states of the last two steps
+     * with it.
+     *
+     * @return interpolation alpha.
+     */
+    public float getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * @return fixed delta of every step.
+     */
+    public float getStep() {
+        return step;
+    }
+
+    /**
+     * @return total number of steps run.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return total time dropped because more than maxSubSteps steps were due.
+     */
+    public double getDroppedTime() {
+        return droppedTime;
+    }
+
+    public int getMaxSubSteps() {
+        return maxSubSteps;
+    }
+
+    public void setMaxSubSteps(int maxSubSteps) {
+        if (maxSubSteps < 1) {
+            throw new IllegalArgumentException("At least one sub-step is required: " + maxSubSteps);
+        }
+        this.maxSubSteps = maxSubSteps;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+}
@@ -0,0 +1,101 @@
+package com.artemis;
+
+import com.artemis.utils.ComponentStorage;
+import com.artemis.utils.ComponentView;
+import com.artemis.utils.PrimitiveComponentStorage;
+
+/**
+ * Reads and writes the fields of components kept in a
+ * PrimitiveComponentStorage, without any component instances.
+ *
+ * Look the field numbers up once, e.g. in initialize():
+ *
+ * positionMapper = new PrimitiveComponentMapper&lt;Position&gt;(Position.class, world);
+ * x = positionMapper.getFloatField("x");
+ *
+ * and use them while processing:
+ *
+ * positionMapper.setFloat(e, x, positionMapper.getFloat(e, x) + dx);
+ *
+ * getView() returns a flyweight over the fields of an entity's component,
+ * the same object for every entity.
+ *
+ * @param <A> the class type of the component
+ */
+public class PrimitiveComponentMapper<A extends Component> {
+
+    private PrimitiveComponentStorage<A> components;
+    private ComponentView view;
+
+    /**
+     * @param type Component class, must use a PrimitiveComponentStorage.
+     * @param world World the components belong to.
+     */
+    public PrimitiveComponentMapper(Class<A> type, World world) {
+        ComponentStorage<A> storage = world.getComponentManager().getStorage(type);
+        if (!(storage instanceof PrimitiveComponentStorage)) {
+            throw new IllegalStateException(type.getName() + " does not use a PrimitiveComponentStorage.");
+        }
+        components = (PrimitiveComponentStorage<A>) storage;
+        view = new ComponentView(components);
+    }
+
+    /**
+     * @param name Name of a float field of the component.
+     * @return number of the field.
+     */
+    public int getFloatField(String name) {
+        return components.getLayout().getFloatField(name);
+    }
+
+    /**
+     * @param name Name of an int field of the component.
+     * @return number of the field.
+     */
+    public int getIntField(String name) {
+        return components.getLayout().getIntField(name);
+    }
+
+    public float getFloat(Entity e, int field) {
+        return components.getFloat(e.id, field);
+    }
+
+    public void setFloat(Entity e, int field, float value) {
+        components.setFloat(e.id, field, value);
+    }
+
+    public int getInt(Entity e, int field) {
+        return components.getInt(e.id, field);
+    }
+
+    public void setInt(Entity e, int field, int value) {
+        components.setInt(e.id, field, value);
+    }
+
+    /**
+     * Returns the flyweight of this mapper pointed at the component of an
+     * entity. It's valid until the next call, don't keep it.
+     *
+     * @param e the entity that should possess the component
+     * @return view over the fields of the component
+     */
+    public ComponentView getView(Entity e) {
+        return view.moveTo(e.id);
+    }
+
+    /**
+     * Checks if the entity has this type of component.
+     * @param e the entity to check
+     * @return true if the entity has this component type, false if it doesn't.
+     */
+    public boolean has(Entity e) {
+        return components.has(e.id);
+    }
+
+    /**
+     * @return the storage of the components, e.g. to stream its arrays.
+     */
+    public PrimitiveComponentStorage<A> getStorage() {
+        return components;
+    }
+}
@@ -4,11 +4,14 @@ import com.artemis.managers.ComponentManager;
 import com.artemis.managers.EntityManager;
 import com.artemis.managers.Manager;
 import com.artemis.systems.EntitySystem;
+import com.artemis.systems.event.BasicEventDeliverySystem;
 import com.artemis.systems.event.EventDeliverySystem;
 import com.artemis.systems.event.SystemEvent;
+import com.artemis.systems.scheduler.SystemScheduler;
+import com.artemis.utils.EntityIdSet;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
 import com.badlogic.gdx.utils.Disposable;
-import com.badlogic.gdx.utils.ObjectSet;
 
 /**
  * The primary instance for the framework. It contains all the managers.
@@ -33,11 +36,11 @@ public class World implements Disposable {
     protected ComponentManager cm;
 
     protected float delta;
-    protected ObjectSet<Entity> added;
-    protected ObjectSet<Entity> changed;
-    protected ObjectSet<Entity> deleted;
-    protected ObjectSet<Entity> enable;
-    protected ObjectSet<Entity> disable;
+    protected EntityIdSet added;
+    protected EntityIdSet changed;
+    protected EntityIdSet deleted;
+    protected EntityIdSet enable;
+    protected EntityIdSet disable;
 
     protected Performer addedPerformer;
     protected Performer changedPerformer;
@@ -49,6 +52,17 @@ public class World implements Disposable {
 
     protected EventDeliverySystem eventSystem;
     protected Array<EntitySystem> systems;
+    protected ArchetypeIndex archetypes;
+
+    /**
+     * Indices assigned to the systems of this world. Deleted systems
+     * release their index, so the indices stay dense.
+     */
+    protected Bits systemIndices;
+
+    protected SystemScheduler scheduler;
+
+    protected final Array<SystemEvent> noEvents = new Array<SystemEvent>(0);
 
     public World() {
         this(new ComponentManager(), new EntityManager());
@@ -64,12 +78,14 @@ public class World implements Disposable {
     public World(ComponentManager cm, EntityManager em) {
         managers = new Array<Manager>();
         systems = new Array<EntitySystem>();
+        archetypes = new ArchetypeIndex(systems);
+        systemIndices = new Bits();
 
-        added = new ObjectSet<Entity>();
-        changed = new ObjectSet<Entity>();
-        deleted = new ObjectSet<Entity>();
-        enable = new ObjectSet<Entity>();
-        disable = new ObjectSet<Entity>();
+        added = new EntityIdSet();
+        changed = new EntityIdSet();
+        deleted = new EntityIdSet();
+        enable = new EntityIdSet();
+        disable = new EntityIdSet();
 
         addedPerformer = new Performer() {
             @Override
@@ -232,13 +248,8 @@ public class World implements Disposable {
      * @param e Entity to remove
      */
     public void deleteEntity(Entity e) {
-        if (!deleted.contains(e)) {
-            deleted.add(e);
-        }
-
-        if (added.contains(e)) {
-            added.remove(e);
-        }
+        deleted.add(e);
+        added.remove(e);
     }
 
     /**
@@ -273,6 +284,26 @@ public class World implements Disposable {
         return em.createEntityInstance();
     }
 
+    /**
+     * Creates a batch of entities with the template's components and
+     * adds them to the world. Ids are reserved in a single block and
+     * each component storage is grown once for the whole batch.
+     * 
+     * @param template Template of the components to create.
+     * @param count Number of entities to create.
+     * @param entities Array the created entities are added to.
+     * @return the array of entities.
+     */
+    public Array<Entity> createEntities(EntityTemplate template, int count, Array<Entity> entities) {
+        int start = entities.size;
+        em.createEntityInstances(count, entities);
+        cm.addComponents(entities, start, template);
+        for (int i = start; i < entities.size; i++) {
+            added.add(entities.get(i));
+        }
+        return entities;
+    }
+
     /**
      * Create and return a new or reused component instance of specified type.
      * 
@@ -287,12 +318,17 @@ public class World implements Disposable {
     /**
      * Creates an instance of an event of a specified type. The event
      * needs to be posted to the world in order to be propagated to listeners.
+     * Events come from the pools of the event system if it is a
+     * BasicEventDeliverySystem, otherwise from the global pools.
      * 
      * @param <T> Type of event
      * @param type Type of event to create.
      * @return Event of specified type.
      */
     public <T extends SystemEvent> T createEvent(Class<T> type) {
+        if (eventSystem instanceof BasicEventDeliverySystem) {
+            return ((BasicEventDeliverySystem) eventSystem).createEvent(type);
+        }
         return SystemEvent.createEvent(type);
     }
 
@@ -333,6 +369,31 @@ public class World implements Disposable {
         }
     }
 
+    /**
+     * Returns the events of a type available in this processing cycle,
+     * without copying them. The array must not be modified and can
+     * contain handled events.
+     * 
+     * Only a BasicEventDeliverySystem exposes its queues, for any other
+     * event system the events are copied into a new array with getEvents().
+     * 
+     * @param <T> Type of event
+     * @param pollingSystem System that is polling for events
+     * @param eventTypeIndex Type index of the events, see SystemEvent.getEventTypeIndex().
+     * @return events of the type, empty if there is no event system.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends SystemEvent> Array<T> getEventQueue(EntitySystem pollingSystem, int eventTypeIndex) {
+        if (eventSystem instanceof BasicEventDeliverySystem) {
+            return ((BasicEventDeliverySystem) eventSystem).getEventQueue(pollingSystem, eventTypeIndex);
+        } else if (eventSystem != null) {
+            Array<T> events = new Array<T>();
+            eventSystem.getEvents(pollingSystem, (Class<T>) SystemEvent.getEventType(eventTypeIndex), events);
+            return events;
+        }
+        return (Array<T>) noEvents;
+    }
+
     /**
      * Gives you all the systems in this world for possible iteration.
      * 
@@ -360,6 +421,26 @@ public class World implements Disposable {
         this.eventSystem = eventSystem;
     }
 
+    /**
+     * Returns the scheduler processing the systems, or null if the
+     * systems are processed in order on the calling thread.
+     * 
+     * @return System scheduler for the world.
+     */
+    public SystemScheduler getSystemScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Set the scheduler used to process the systems. By default (null)
+     * systems are processed one after another in the order they were added.
+     * 
+     * @param scheduler System scheduler
+     */
+    public void setSystemScheduler(SystemScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
     /**
      * Adds a system to this world that will be processed by World.process()
      * 
@@ -373,7 +454,11 @@ public class World implements Disposable {
         if (system instanceof EventDeliverySystem) {
             eventSystem = (EventDeliverySystem) system;
         } else {
+            int index = systemIndices.nextClearBit(0);
+            systemIndices.set(index);
+            system.setSystemIndex(index);
             systems.add(system);
+            archetypes.clear();
         }
 
         return system;
@@ -400,8 +485,16 @@ public class World implements Disposable {
     public void deleteSystem(EntitySystem system) {
         if (system instanceof EventDeliverySystem) {
             eventSystem = null;
-        } else {
-            systems.removeValue(system, true);
+        } else if (systems.removeValue(system, true)) {
+            // the index is reused by the next system, clear it from the entities
+            int index = system.getSystemIndex();
+            Array<Entity> actives = system.getActives();
+            for (int i = 0; i < actives.size; i++) {
+                actives.get(i).getSystemBits().clear(index);
+            }
+            systemIndices.clear(index);
+            system.setSystemIndex(-1);
+            archetypes.clear();
         }
     }
 
@@ -412,6 +505,11 @@ public class World implements Disposable {
      * @param e Entity that has been affected.
      */
     protected void notifySystems(Performer performer, Entity e) {
+        if (performer == addedPerformer || performer == changedPerformer || performer == enablePerformer) {
+            // Membership only depends on the entity's components here.
+            archetypes.check(e);
+            return;
+        }
         for(int i = 0; i < systems.size; i++) {
             performer.perform(systems.get(i), e);
         }
@@ -424,8 +522,8 @@ public class World implements Disposable {
      * @param e Entity that has been affected.
      */
     protected void notifyManagers(Performer performer, Entity e) {
-        for(Manager manager : managers) {
-            performer.perform(manager, e);
+        for (int i = 0; i < managers.size; i++) {
+            performer.perform(managers.get(i), e);
         }
     }
 
@@ -449,18 +547,21 @@ public class World implements Disposable {
 
 
     /**
-     * Performs an action on each entity.
+     * Performs an action on each entity, in the order of entity ids.
+     * Each entity is taken out of the set before observers are notified,
+     * so an entity that gets queued again by an observer is kept for
+     * the next call.
      * 
      * @param entities
      * @param performer
      */
-    protected void check(ObjectSet<Entity> entities, Performer performer) {
-        if (entities.size > 0) {
-            for (Entity e : entities) {
-                notifyManagers(performer, e);
-                notifySystems(performer, e);
-            }
-            entities.clear();
+    protected void check(EntityIdSet entities, Performer performer) {
+        int id = -1;
+        while (entities.size > 0 && (id = entities.nextId(id + 1)) >= 0) {
+            Entity e = entities.get(id);
+            entities.remove(e);
+            notifyManagers(performer, e);
+            notifySystems(performer, e);
         }
     }
 
@@ -482,10 +583,14 @@ public class World implements Disposable {
             eventSystem.update();
         }
 
-        for(int i = 0; i < systems.size; i++) {
-            EntitySystem system = systems.get(i);
-            if(!system.isPassive()) {
-                system.process();
+        if (scheduler != null) {
+            scheduler.process(systems);
+        } else {
+            for(int i = 0; i < systems.size; i++) {
+                EntitySystem system = systems.get(i);
+                if(!system.isPassive()) {
+                    system.process();
+                }
             }
         }
     }
@@ -520,11 +625,17 @@ public class World implements Disposable {
 
         managers.clear();
         systems.clear();
+        archetypes.clear();
 
         if (eventSystem != null) {
             eventSystem.dispose();
             eventSystem = null;
         }
+
+        if (scheduler != null) {
+            scheduler.dispose();
+            scheduler = null;
+        }
     }
 
 }
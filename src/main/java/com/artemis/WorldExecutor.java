@@ -0,0 +1,203 @@
+package com.artemis;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Steps many independent worlds on a bounded pool of worker threads.
+ *
+ * Every registered world gets a FixedTimestepRunner with its own step, so
+ * worlds can run at different tick rates. update() hands the frame delta
+ * to the runners of all worlds and waits until they are done. A world is
+ * only ever stepped by one thread at a time, and the worlds are submitted
+ * in rotating order, so no world is always queued last when there are
+ * more worlds than threads.
+ *
+ * Worlds must not share systems, managers or entities. Component and
+ * event type indices are safe to use from several worlds at once, while
+ * components and events are pooled per world. Create events with
+ * World.createEvent(), the static SystemEvent pools aren't thread safe.
+ */
+public class WorldExecutor implements Disposable {
+
+    /**
+     * Steps a single world.
+     */
+    protected class WorldTask implements Runnable {
+        final FixedTimestepRunner runner;
+        float frameDelta;
+
+        WorldTask(FixedTimestepRunner runner) {
+            this.runner = runner;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (failure.get() == null) {
+                    runner.update(frameDelta);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                pending.countDown();
+            }
+        }
+    }
+
+    protected ExecutorService executor;
+    protected boolean ownsExecutor;
+
+    protected Array<WorldTask> tasks;
+    protected int nextFirst;
+
+    protected CountDownLatch pending;
+    protected final AtomicReference<Throwable> failure;
+
+    /**
+     * Creates an executor with a worker per available processor.
+     */
+    public WorldExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an executor with the specified number of workers.
+     *
+     * @param threads Number of worker threads.
+     */
+    public WorldExecutor(int threads) {
+        this(Executors.newFixedThreadPool(Math.max(1, threads)));
+        ownsExecutor = true;
+    }
+
+    /**
+     * Creates an executor that steps worlds on the specified executor.
+     * The executor is not shut down when this executor is disposed.
+     *
+     * @param executor Executor to step worlds on.
+     */
+    public WorldExecutor(ExecutorService executor) {
+        this.executor = executor;
+        this.tasks = new Array<WorldTask>();
+        this.failure = new AtomicReference<Throwable>();
+    }
+
+    /**
+     * Registers a world that runs at most 5 steps per frame.
+     *
+     * @param world World to step, must be initialized.
+     * @param step Fixed delta of every step of the world.
+     * @return runner stepping the world.
+     */
+    public FixedTimestepRunner register(World world, float step) {
+        return register(new FixedTimestepRunner(world, step));
+    }
+
+    /**
+     * Registers a world through its runner, e.g. to use frame systems.
+     *
+     * @param runner Runner stepping the world.
+     * @return the runner.
+     * @throws IllegalArgumentException if the world is already registered.
+     */
+    public FixedTimestepRunner register(FixedTimestepRunner runner) {
+        if (indexOf(runner.getWorld()) >= 0) {
+            // it would be stepped by two threads at once
+            throw new IllegalArgumentException("World is already registered.");
+        }
+        tasks.add(new WorldTask(runner));
+        return runner;
+    }
+
+    /**
+     * Stops stepping a world. The world is not disposed.
+     *
+     * @param world World to unregister.
+     * @return false if the world wasn't registered.
+     */
+    public boolean unregister(World world) {
+        int index = indexOf(world);
+        if (index < 0) {
+            return false;
+        }
+        tasks.removeIndex(index);
+        return true;
+    }
+
+    /**
+     * Helper method to find the task stepping a world.
+     */
+    protected int indexOf(World world) {
+        for (int i = 0; i < tasks.size; i++) {
+            if (tasks.get(i).runner.getWorld() == world) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return number of registered worlds.
+     */
+    public int size() {
+        return tasks.size;
+    }
+
+    /**
+     * Steps all registered worlds and waits for them. The first exception
+     * thrown by a world is rethrown after all worlds are done.
+     *
+     * @param frameDelta Time since the last update.
+     */
+    public void update(float frameDelta) {
+        int count = tasks.size;
+        if (count == 0) {
+            return;
+        }
+
+        pending = new CountDownLatch(count);
+        nextFirst = nextFirst % count;
+        for (int i = 0; i < count; i++) {
+            WorldTask task = tasks.get((nextFirst + i) % count);
+            task.frameDelta = frameDelta;
+            executor.execute(task);
+        }
+        nextFirst++;
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                pending.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        Throwable t = failure.getAndSet(null);
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+        tasks.clear();
+    }
+}
@@ -3,56 +3,68 @@ package com.artemis.managers;
 import com.artemis.Component;
 import com.artemis.ComponentMapper;
 import com.artemis.Entity;
+import com.artemis.EntityTemplate;
+import com.artemis.utils.ClassIndexRegistry;
+import com.artemis.utils.ComponentStorage;
+import com.artemis.utils.DenseComponentStorage;
 import com.artemis.utils.SafeArray;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Bits;
 import com.badlogic.gdx.utils.IntArray;
-import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.ObjectMap;
-import com.badlogic.gdx.utils.ObjectMap.Entry;
-import com.badlogic.gdx.utils.Pools;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.ReflectionPool;
 
 /**
  * Responsible for pooling and managing of Components and their
  * mapping to entities.
  */
 public class ComponentManager extends Manager {
-    protected Array<Array<? extends Component>> componentsByType;
+    protected Array<ComponentStorage<? extends Component>> componentsByType;
     protected Array<Entity> deletedEntities;
-    protected ObjectMap<Entity, IntArray> componentsToDelete;
+
+    /**
+     * Components removed during the frame, freed in clean().
+     * Stored as pairs of entity and component class index.
+     */
+    protected Array<Entity> removedComponentEntities;
+    protected IntArray removedComponentIndices;
 
     protected ObjectMap<Class<?>, ComponentMapper<?>> mappers;
 
-    protected static int nextComponentClassIndex = 0;
-    protected static ObjectIntMap<Class<? extends Component>> componentClassIndeces =
-            new ObjectIntMap<Class<? extends Component>>();
+    /**
+     * Component pools of this manager. Every world pools its own
+     * components, so worlds can be processed on different threads.
+     */
+    protected ObjectMap<Class<?>, Pool<?>> pools;
+
+    protected static final ClassIndexRegistry<Component> componentClassIndices =
+            new ClassIndexRegistry<Component>();
 
     Array<Component> returnedComponents;
 
     /**
      * Returns the index of a Component class. Indices are cached, so retrieval
-     * should be fast.
+     * should be fast. Safe to call from any thread, e.g. while building
+     * Filters or Worlds in parallel.
      * 
      * @param type Component class to retrieve the index for.
      * @return Index of a specific component class.
      */
     public static int getComponentClassIndex(Class<? extends Component> type) {
-        if (componentClassIndeces.containsKey(type)) {
-            return componentClassIndeces.get(type, -1);
-        } else {
-            componentClassIndeces.put(type, nextComponentClassIndex);
-            return nextComponentClassIndex++;
-        }
+        return componentClassIndices.getIndex(type);
     }
 
     /**
      * Default constructor
      */
     public ComponentManager() {
-        componentsByType = new SafeArray<Array<? extends Component>>();
+        componentsByType = new SafeArray<ComponentStorage<? extends Component>>();
         deletedEntities = new Array<Entity>();
-        componentsToDelete = new ObjectMap<Entity, IntArray>();
+        removedComponentEntities = new Array<Entity>();
+        removedComponentIndices = new IntArray();
         this.mappers = new ObjectMap<Class<?>, ComponentMapper<?>>();
+        this.pools = new ObjectMap<Class<?>, Pool<?>>();
 
         this.returnedComponents = new Array<Component>();
     }
@@ -65,7 +77,35 @@ public class ComponentManager extends Manager {
      * @return Pooled Component of specified type.
      */
     public <T extends Component> T createComponent(Class<T> type) {
-        return Pools.obtain(type);
+        return getPool(type).obtain();
+    }
+
+    /**
+     * Returns the pool of a component type, creating it if necessary.
+     * 
+     * @param <T> Type of component
+     * @param type Type of component to get the pool for.
+     * @return Pool of the component type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component> Pool<T> getPool(Class<T> type) {
+        Pool<T> pool = (Pool<T>) pools.get(type);
+        if (pool == null) {
+            pool = new ReflectionPool<T>(type, 4, 100);
+            pools.put(type, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * Returns a component to the pool of its type.
+     * 
+     * @param component Component to free.
+     */
+    @SuppressWarnings("unchecked")
+    protected void free(Component component) {
+        Pool<Component> pool = (Pool<Component>) (Pool<?>) getPool(component.getClass());
+        pool.free(component);
     }
 
     /**
@@ -89,23 +129,56 @@ public class ComponentManager extends Manager {
      */
     public <T extends Component> void addComponent(Entity e, T component) {
         int classIndex = getComponentClassIndex(component.getClass());
-        @SuppressWarnings("unchecked")
-        Array<T> components = (Array<T>) componentsByType.get(classIndex);
-        if(components == null) {
-            components = new SafeArray<T>();
-            componentsByType.set(classIndex, components);
-        }
+        ComponentStorage<T> components = getStorage(classIndex);
 
-        // clean up existing component belonging to the entity
-        Component current = components.get(e.id);
-        if (current != null && current != component) {
-            Pools.free(current);
+        // clean up existing component belonging to the entity, a storage
+        // that copies the component leaves the instance to the caller
+        Component current = components.set(e.id, component);
+        if (components.storesInstances() && current != null && current != component) {
+            free(current);
         }
-        components.set(e.id, component);
 
         e.getComponentBits().set(classIndex);
     }
 
+    /**
+     * Adds new pooled instances of the template's components to a batch
+     * of entities. Each storage is grown once for the whole batch.
+     * 
+     * @param entities Array containing the entities.
+     * @param start Index of the first entity of the batch.
+     * @param template Template of the components to add.
+     */
+    public void addComponents(Array<Entity> entities, int start, EntityTemplate template) {
+        int maxId = -1;
+        for (int i = start; i < entities.size; i++) {
+            maxId = Math.max(maxId, entities.get(i).id);
+        }
+        for (int t = 0; t < template.size(); t++) {
+            addComponents(entities, start, maxId, template.getType(t), template.getClassIndex(t));
+        }
+        for (int i = start; i < entities.size; i++) {
+            entities.get(i).getComponentBits().or(template.getComponentBits());
+        }
+    }
+
+    private <T extends Component> void addComponents(Array<Entity> entities, int start,
+            int maxId, Class<T> type, int classIndex) {
+        ComponentStorage<T> components = getStorage(classIndex);
+        components.ensureCapacity(maxId, entities.size - start);
+        Pool<T> pool = getPool(type);
+        boolean storesInstances = components.storesInstances();
+        for (int i = start; i < entities.size; i++) {
+            T component = pool.obtain();
+            Component current = components.set(entities.get(i).id, component);
+            if (!storesInstances) {
+                pool.free(component);
+            } else if (current != null) {
+                free(current);
+            }
+        }
+    }
+
     /**
      * Remove Component of specified class for a given Entity.
      * 
@@ -117,34 +190,87 @@ public class ComponentManager extends Manager {
         if(e.getComponentBits().get(classIndex)) {
             e.getComponentBits().clear(classIndex);
 
-            if (!componentsToDelete.containsKey(e)) {
-                componentsToDelete.put(e, Pools.obtain(IntArray.class));
-            }
-            componentsToDelete.get(e).add(classIndex);
+            removedComponentEntities.add(e);
+            removedComponentIndices.add(classIndex);
         }
     }
 
     /**
-     * Returns an Array of all Components of specified type.
+     * Returns the storage holding all Components of specified type.
+     * A DenseComponentStorage is created if the type does not have
+     * a storage yet.
      * 
      * @param <T> Type of component
-     * @param type Type of Componets to return
-     * @return an Array of said components.
+     * @param type Type of Components to return the storage for.
+     * @return storage of said components.
+     */
+    public <T extends Component> ComponentStorage<T> getStorage(Class<T> type) {
+        return getStorage(getComponentClassIndex(type));
+    }
+
+    /**
+     * Helper method to retrieve the storage of a Component class index,
+     * creating a DenseComponentStorage if necessary.
+     * 
+     * @param <T> Type of component
+     * @param classIndex Component class index.
+     * @return storage of the components.
      */
     @SuppressWarnings("unchecked")
-    public <T extends Component> Array<T> getComponents(Class<T> type) {
-        int classIndex = getComponentClassIndex(type);
-        Array<T> components = (Array<T>) componentsByType.get(classIndex);
+    protected <T extends Component> ComponentStorage<T> getStorage(int classIndex) {
+        ComponentStorage<T> components = (ComponentStorage<T>) componentsByType.get(classIndex);
         if(components == null) {
-            components = new SafeArray<T>();
+            components = new DenseComponentStorage<T>();
             componentsByType.set(classIndex, components);
         }
         return components;
     }
 
+    /**
+     * Sets the storage used for Components of specified type, e.g.
+     * a PackedComponentStorage for component types that only few
+     * entities possess.
+     * 
+     * Has to be called before any component of the type is added
+     * and before any mapper for the type is retrieved.
+     * 
+     * @param <T> Type of component
+     * @param type Type of Components to use the storage for.
+     * @param storage Storage to use.
+     */
+    public <T extends Component> void setStorage(Class<T> type, ComponentStorage<T> storage) {
+        int classIndex = getComponentClassIndex(type);
+        if (componentsByType.get(classIndex) != null) {
+            throw new IllegalStateException("Storage for " + type.getName() + " is already in use.");
+        }
+        componentsByType.set(classIndex, storage);
+    }
+
+    /**
+     * DEPRECATED Use getStorage() instead.
+     * 
+     * Returns an Array of all Components of specified type, indexed
+     * by entity id.
+     * 
+     * @param <T> Type of component
+     * @param type Type of Componets to return
+     * @return an Array of said components, or null if the type does
+     * not use a DenseComponentStorage.
+     */
+    @Deprecated
+    public <T extends Component> Array<T> getComponents(Class<T> type) {
+        ComponentStorage<T> components = getStorage(type);
+        if (components instanceof DenseComponentStorage) {
+            return ((DenseComponentStorage<T>) components).getComponents();
+        }
+        return null;
+    }
+
     /**
      * Returns Component of the specified type belonging to specified Entity.
-     * Null if not found.
+     * Null if not found. Types kept in a storage without component
+     * instances, e.g. an ArrayComponentStorage, can't be retrieved this
+     * way, use a PrimitiveComponentMapper.
      * 
      * @param <T> Type of component
      * @param e Entity to return Component for.
@@ -154,8 +280,12 @@ public class ComponentManager extends Manager {
     @SuppressWarnings("unchecked")
     public <T extends Component> T getComponent(Entity e, Class<T> type) {
         int classIndex = getComponentClassIndex(type);
-        Array<T> components = (Array<T>) componentsByType.get(classIndex);
+        ComponentStorage<T> components = (ComponentStorage<T>) componentsByType.get(classIndex);
         if(components != null) {
+            if (!components.storesInstances()) {
+                throw new IllegalStateException(type.getName()
+                        + " does not keep component instances, use a PrimitiveComponentMapper.");
+            }
             return components.get(e.id);
         }
         return null;
@@ -171,7 +301,11 @@ public class ComponentManager extends Manager {
         Bits componentBits = e.getComponentBits();
 
         for (int i = componentBits.nextSetBit(0); i >= 0; i = componentBits.nextSetBit(i+1)) {
-            array.add(componentsByType.get(i).get(e.id));
+            // primitive storages don't keep component instances
+            Component component = componentsByType.get(i).get(e.id);
+            if (component != null) {
+                array.add(component);
+            }
         }
     }
 
@@ -201,8 +335,8 @@ public class ComponentManager extends Manager {
      */
     public void clean() {
         if (deletedEntities.size > 0) {
-            for (Entity entity : deletedEntities) {
-                removeComponentsOfEntity(entity);
+            for (int i = 0; i < deletedEntities.size; i++) {
+                removeComponentsOfEntity(deletedEntities.get(i));
             }
             deletedEntities.clear();
         }
@@ -213,14 +347,16 @@ public class ComponentManager extends Manager {
      * Cleans up components that have removed from the world.
      */
     protected void cleanRemovedComponents() {
-        for (Entry<Entity, IntArray> entry : componentsToDelete.entries()) {
-            for (int i = 0; i < entry.value.size; i++) {
-                removeComponent(entry.key.id, entry.value.items[i]);
+        for (int i = 0; i < removedComponentEntities.size; i++) {
+            Entity e = removedComponentEntities.get(i);
+            int classIndex = removedComponentIndices.get(i);
+            // skip components that were added again since they were removed
+            if (!e.getComponentBits().get(classIndex)) {
+                removeComponent(e.id, classIndex);
             }
-            entry.value.clear();
-            Pools.free(entry.value);
         }
-        componentsToDelete.clear();
+        removedComponentEntities.clear();
+        removedComponentIndices.clear();
     }
 
     /**
@@ -231,13 +367,12 @@ public class ComponentManager extends Manager {
      * @param componentClassIndex Component index to remove.
      */
     protected void removeComponent(int entityId, int componentClassIndex) {
-        Array<? extends Component> components =
+        ComponentStorage<? extends Component> components =
                 componentsByType.get(componentClassIndex);
         if (components != null) {
-            Component compoment = components.get(entityId);
+            Component compoment = components.remove(entityId);
             if (compoment != null) {
-                components.set(entityId, null);
-                Pools.free(compoment);
+                free(compoment);
             }
         }
     }
@@ -264,14 +399,22 @@ public class ComponentManager extends Manager {
 
     @Override
     public void dispose() {
-        for (Array<? extends Component> components : componentsByType) {
+        returnedComponents.clear();
+        for (int i = 0; i < componentsByType.size; i++) {
+            ComponentStorage<? extends Component> components = componentsByType.get(i);
             if (components != null) {
-                Pools.freeAll(components);
-                components.clear();
+                components.removeAll(returnedComponents);
             }
         }
+        for (int i = 0; i < returnedComponents.size; i++) {
+            free(returnedComponents.get(i));
+        }
+        returnedComponents.clear();
+        pools.clear();
         componentsByType.clear();
         deletedEntities.clear();
+        removedComponentEntities.clear();
+        removedComponentIndices.clear();
         mappers.clear();
     }
 
@@ -4,6 +4,7 @@ import com.artemis.Entity;
 import com.artemis.utils.IdentifierPool;
 import com.artemis.utils.SafeArray;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.Pool;
 
 import java.util.BitSet;
@@ -25,12 +26,14 @@ public class EntityManager extends Manager {
 
     protected IdentifierPool identifierPool;
     protected Pool<Entity> entityPool;
+    protected IntArray batchIds;
 
     public EntityManager() {
         entities = new SafeArray<Entity>();
         deletedEntities = new Array<Entity>();
         disabled = new BitSet();
         identifierPool = new IdentifierPool();
+        batchIds = new IntArray();
         entityPool = new Pool<Entity>() {
 
             @Override
@@ -38,13 +41,6 @@ public class EntityManager extends Manager {
                 return new Entity(world);
             }
 
-            @Override
-            public Entity obtain() {
-                Entity entity = super.obtain();
-                entity.id = identifierPool.checkOut();
-                return entity;
-            }
-
             @Override
             public void free (Entity entity) {
                 if (entity != null) {
@@ -71,7 +67,28 @@ public class EntityManager extends Manager {
      */
     public Entity createEntityInstance() {
         created++;
-        return entityPool.obtain();
+        Entity entity = entityPool.obtain();
+        entity.id = identifierPool.checkOut();
+        return entity;
+    }
+
+    /**
+     * Creates a batch of entity instances, their ids are checked out
+     * from the identifier pool in a single block.
+     * 
+     * @param count Number of entities to create.
+     * @param entities Array the created entities are added to.
+     */
+    public void createEntityInstances(int count, Array<Entity> entities) {
+        created += count;
+        identifierPool.checkOut(count, batchIds);
+        entities.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            Entity entity = entityPool.obtain();
+            entity.id = batchIds.get(i);
+            entities.add(entity);
+        }
+        batchIds.clear();
     }
 
     @Override
@@ -101,7 +118,8 @@ public class EntityManager extends Manager {
      */
     public void clean() {
         if(deletedEntities.size > 0) {
-            for (Entity e : deletedEntities) {
+            for (int i = 0; i < deletedEntities.size; i++) {
+                Entity e = deletedEntities.get(i);
                 entities.set(e.id, null);
                 disabled.clear(e.id);
                 active--;
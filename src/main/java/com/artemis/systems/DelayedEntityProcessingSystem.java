@@ -6,7 +6,8 @@ import com.badlogic.gdx.utils.Array;
 
 /**
  * DEPRECATED This system is currently deprecated because of poor API and buggy
- * implementation beyond redemption. Use SkipEntityProcessingSystem instead.
+ * implementation beyond redemption. Use SkipEntityProcessingSystem or
+ * ScheduledEntityProcessingSystem instead.
  * 
  * The purpose of this class is to allow systems to execute at varying intervals.
  * 
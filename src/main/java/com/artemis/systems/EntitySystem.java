@@ -3,10 +3,10 @@ package com.artemis.systems;
 import com.artemis.Entity;
 import com.artemis.EntityObserver;
 import com.artemis.Filter;
+import com.artemis.FilterMatcher;
 import com.artemis.World;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Bits;
-import com.badlogic.gdx.utils.ObjectIntMap;
 
 /**
  * The most raw entity system. It should not typically be used, but you
@@ -18,14 +18,29 @@ import com.badlogic.gdx.utils.ObjectIntMap;
  *
  */
 public abstract class EntitySystem implements EntityObserver {
-    protected final int systemIndex;
+    /**
+     * Index of the system in its world, assigned by World.setSystem().
+     */
+    protected int systemIndex = -1;
 
     protected World world;
 
     protected Array<Entity> actives;
 
+    /**
+     * Position of each active entity in actives, indexed by entity id.
+     * Stored as position + 1 so that 0 means the entity isn't active.
+     */
+    protected int[] activeSlots;
+
+    protected boolean ordered;
+
+    protected boolean activesDirty;
+
     protected Filter filter;
 
+    protected final FilterMatcher matcher;
+
     protected boolean passive;
 
     protected boolean dummySystem;
@@ -38,12 +53,13 @@ public abstract class EntitySystem implements EntityObserver {
      */
     public EntitySystem(Filter filter) {
         actives = new Array<Entity>();
+        activeSlots = new int[64];
         this.filter = filter;
-        systemIndex = SystemIndexManager.getIndexFor(this.getClass());
+        this.matcher = new FilterMatcher(filter);
 
         // This system can't possibly be interested in any entity,
         // so it must be "dummy system"
-        dummySystem = filter.allSet.isEmpty() && filter.anySet.isEmpty();
+        dummySystem = matcher.isEmpty();
     }
 
     /**
@@ -56,6 +72,7 @@ public abstract class EntitySystem implements EntityObserver {
      * Process all entities that are targeted by this system.
      */
     public final void process() {
+        compactActives();
         if(checkProcessing()) {
             begin();
             processEntities(actives);
@@ -115,33 +132,29 @@ public abstract class EntitySystem implements EntityObserver {
             return;
         }
 
-        boolean contains = e.getSystemBits().get(systemIndex);
-        boolean interested = true; // possibly interested, let's try to prove it wrong.
-
-        Bits componentBits = e.getComponentBits();
-
-        // Check if the entity possesses ALL of the components defined in the filter.
-        if(!filter.allSet.isEmpty()) {
-            for (int i = filter.allSet.nextSetBit(0); i >= 0; i = filter.allSet.nextSetBit(i+1)) {
-                if(!componentBits.get(i)) {
-                    interested = false;
-                    break;
-                }
-            }
-        }
-
-        // Check if the entity possesses ANY of the components in the anySet.
-        // If so, the system is interested.
-        if(interested && !filter.anySet.isEmpty()) {
-            interested = filter.anySet.intersects(componentBits);
-        }
+        updateMembership(e, matcher.matches(e.getComponentBits()));
+    }
 
-        // Check if the entity possesses ANY of the exclusion components,
-        // if it does then the system is not interested.
-        if(interested && !filter.exclusionSet.isEmpty()) {
-            interested = !filter.exclusionSet.intersects(componentBits);
-        }
+    /**
+     * Checks if an entity with the specified components is of interest to this system.
+     * 
+     * @param componentBits Component bits of the entity.
+     * @return true if the system is interested, false otherwise.
+     */
+    public final boolean isInterested(Bits componentBits) {
+        return !dummySystem && matcher.matches(componentBits);
+    }
 
+    /**
+     * Inserts the entity into the system or removes it from the system,
+     * depending on whether the system is interested in the entity.
+     * Used by World when it already knows the systems that are interested.
+     * 
+     * @param e entity to insert or remove.
+     * @param interested whether the system is interested in the entity.
+     */
+    public final void updateMembership(Entity e, boolean interested) {
+        boolean contains = e.getSystemBits().get(systemIndex);
         if (interested && !contains) {
             insertToSystem(e);
         } else if (!interested && contains) {
@@ -155,7 +168,21 @@ public abstract class EntitySystem implements EntityObserver {
      * @param e Entity to remove.
      */
     protected void removeFromSystem(Entity e) {
-        actives.removeValue(e, true);
+        int slot = e.id < activeSlots.length ? activeSlots[e.id] - 1 : -1;
+        if (slot >= 0) {
+            activeSlots[e.id] = 0;
+            if (ordered) {
+                // Leave a hole, compacted before the system is processed.
+                actives.set(slot, null);
+                activesDirty = true;
+            } else {
+                Entity last = actives.pop();
+                if (last != e) {
+                    actives.set(slot, last);
+                    activeSlots[last.id] = slot + 1;
+                }
+            }
+        }
         e.getSystemBits().clear(systemIndex);
         removed(e);
     }
@@ -166,7 +193,13 @@ public abstract class EntitySystem implements EntityObserver {
      * @param e Entity to insert.
      */
     protected void insertToSystem(Entity e) {
+        if (e.id >= activeSlots.length) {
+            int[] newSlots = new int[Math.max(e.id + 1, activeSlots.length * 2)];
+            System.arraycopy(activeSlots, 0, newSlots, 0, activeSlots.length);
+            activeSlots = newSlots;
+        }
         actives.add(e);
+        activeSlots[e.id] = actives.size;
         e.getSystemBits().set(systemIndex);
         inserted(e);
     }
@@ -215,30 +248,67 @@ public abstract class EntitySystem implements EntityObserver {
     }
 
     public Array<Entity> getActives() {
+        compactActives();
         return actives;
     }
 
-
+    public boolean isOrdered() {
+        return ordered;
+    }
 
     /**
-     * Used to generate a unique bit for each system.
-     * Only used internally in EntitySystem.
+     * By default entities are removed from the system by moving the last
+     * active entity into their place, which is O(1) but doesn't preserve
+     * the order in which entities were inserted. Ordered systems keep the
+     * insertion order, removed entities are then compacted away before
+     * the system is processed.
+     * 
+     * @param ordered whether the actives should keep insertion order.
      */
-    protected static class SystemIndexManager {
-        protected static int INDEX = 0;
-        protected static ObjectIntMap<Class<? extends EntitySystem>> indices =
-                new ObjectIntMap<Class<? extends EntitySystem>>();
+    public void setOrdered(boolean ordered) {
+        compactActives();
+        this.ordered = ordered;
+    }
 
-        protected static int getIndexFor(Class<? extends EntitySystem> es){
-            int index;
-            if (!indices.containsKey(es)) {
-                index = INDEX++;
-                indices.put(es, index);
-            } else {
-                index = indices.get(es, -1);
+    /**
+     * Remove the holes left in actives by ordered removal.
+     */
+    protected void compactActives() {
+        if (!activesDirty) {
+            return;
+        }
+        int size = 0;
+        for (int i = 0; i < actives.size; i++) {
+            Entity e = actives.get(i);
+            if (e != null) {
+                actives.set(size++, e);
+                activeSlots[e.id] = size;
             }
-            return index;
         }
+        actives.truncate(size);
+        activesDirty = false;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Index of the system in its world, the bit of the system in
+     * Entity.getSystemBits(). Indices are dense per world.
+     * 
+     * @return index of the system, or -1 if it isn't added to a world.
+     */
+    public int getSystemIndex() {
+        return systemIndex;
     }
 
+    /**
+     * Only used internally by World when the system is added or deleted.
+     * 
+     * @param systemIndex Index of the system in its world, or -1.
+     */
+    public final void setSystemIndex(int systemIndex) {
+        this.systemIndex = systemIndex;
+    }
 }
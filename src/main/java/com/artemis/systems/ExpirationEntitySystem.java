@@ -2,6 +2,7 @@ package com.artemis.systems;
 
 import com.artemis.Entity;
 import com.artemis.Filter;
+import com.artemis.utils.EntityTimers;
 
 /**
  * The purpose of this system is to delete an entity after a specified time.
@@ -21,6 +22,17 @@ public final class ExpirationEntitySystem extends SkipEntityProcessingSystem {
         super(filter, delay, false);
     }
 
+    /**
+     * Will expire the entity after the specified delay.
+     * 
+     * @param filter Filter for the system.
+     * @param delay Delay to execution.
+     * @param timers Timers keeping the delays, e.g. a TimingWheel or a TimerArray.
+     */
+    public ExpirationEntitySystem(Filter filter, float delay, EntityTimers timers) {
+        super(filter, delay, false, timers);
+    }
+
     @Override
     protected void processDelayed(Entity e) {
         e.deleteFromWorld();
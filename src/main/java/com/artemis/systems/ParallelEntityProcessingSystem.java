@@ -0,0 +1,239 @@
+package com.artemis.systems;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.artemis.Entity;
+import com.artemis.Filter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * An entity processing system that splits its entities into chunks and
+ * processes the chunks on the threads of an Executor. World.process()
+ * waits until all the chunks are processed before moving on to the next
+ * system.
+ * 
+ * Use this for systems with many independent entities. process(Entity)
+ * is called concurrently, so it must only modify the state of the entity
+ * being processed. Entities must not be created, deleted or changed from
+ * process(Entity) as the World is not thread safe. Do that from joined()
+ * instead, which runs on the calling thread after all chunks are done.
+ * 
+ * Chunks are never smaller than the minimum chunk size. A system with
+ * fewer entities than that is processed on the calling thread. The
+ * calling thread processes chunks as well while it waits, so the system
+ * completes even if the executor is busy, e.g. when it is shared with
+ * a ParallelSystemScheduler.
+ */
+public abstract class ParallelEntityProcessingSystem extends EntitySystem {
+
+    /**
+     * Minimum chunk size used when none is specified.
+     */
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 1024;
+
+    /**
+     * The chunks of a single process() call. Workers and the calling
+     * thread claim chunks until none are left.
+     */
+    protected class Batch implements Runnable {
+        final Array<Entity> entities;
+        final int chunks;
+        final AtomicInteger next;
+        final CountDownLatch done;
+
+        Batch(Array<Entity> entities, int chunks) {
+            this.entities = entities;
+            this.chunks = chunks;
+            this.next = new AtomicInteger();
+            this.done = new CountDownLatch(chunks);
+        }
+
+        @Override
+        public void run() {
+            int chunk;
+            while ((chunk = next.getAndIncrement()) < chunks) {
+                try {
+                    if (failure.get() == null) {
+                        processChunk(entities, bounds.get(chunk), bounds.get(chunk + 1));
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    done.countDown();
+                }
+            }
+        }
+    }
+
+    protected Executor executor;
+    protected int minChunkSize;
+
+    /**
+     * Start of every chunk followed by the end of the last one.
+     */
+    protected final IntArray bounds;
+    protected final AtomicReference<Throwable> failure;
+
+    /**
+     * Creates a system that uses the shared executor and the default minimum chunk size.
+     * 
+     * @param filter Filter for the system.
+     */
+    public ParallelEntityProcessingSystem(Filter filter) {
+        this(filter, DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a system that uses the shared executor.
+     * 
+     * @param filter Filter for the system.
+     * @param minChunkSize Minimum number of entities processed by a single task.
+     */
+    public ParallelEntityProcessingSystem(Filter filter, int minChunkSize) {
+        this(filter, minChunkSize, null);
+    }
+
+    /**
+     * Creates a system that processes its entities on the specified executor.
+     * The executor is not shut down by the system.
+     * 
+     * @param filter Filter for the system.
+     * @param minChunkSize Minimum number of entities processed by a single task.
+     * @param executor Executor to process entities on, or null to use the shared executor.
+     */
+    public ParallelEntityProcessingSystem(Filter filter, int minChunkSize, Executor executor) {
+        super(filter);
+        this.minChunkSize = Math.max(1, minChunkSize);
+        this.executor = executor;
+        this.bounds = new IntArray();
+        this.failure = new AtomicReference<Throwable>();
+    }
+
+    /**
+     * Process a entity this system is interested in. Called concurrently
+     * from the executor's threads.
+     * 
+     * @param e the entity to process.
+     */
+    protected abstract void process(Entity e);
+
+    /**
+     * Called on the processing thread once all the entities have been processed.
+     */
+    protected void joined() {
+    }
+
+    @Override
+    protected final void processEntities(Array<Entity> entities) {
+        bounds.clear();
+        split(0, entities.size);
+        bounds.add(entities.size);
+        int chunks = bounds.size - 1;
+
+        if (chunks == 1) {
+            processChunk(entities, 0, entities.size);
+        } else {
+            Batch batch = new Batch(entities, chunks);
+            Executor executor = getExecutor();
+            for (int i = 1; i < chunks; i++) {
+                executor.execute(batch);
+            }
+            batch.run();
+            await(batch.done);
+
+            Throwable t = failure.getAndSet(null);
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            } else if (t != null) {
+                throw new RuntimeException(t);
+            }
+        }
+        joined();
+    }
+
+    /**
+     * Splits the range [start, end) in halves until a range is smaller
+     * than twice the minimum chunk size, and adds the start of every
+     * resulting chunk to the bounds. Halving a range of at least twice
+     * the minimum keeps both halves at or above the minimum.
+     */
+    protected void split(int start, int end) {
+        if (end - start < 2 * minChunkSize) {
+            bounds.add(start);
+        } else {
+            int middle = (start + end) >>> 1;
+            split(start, middle);
+            split(middle, end);
+        }
+    }
+
+    /**
+     * Processes entities in the range [start, end).
+     */
+    protected void processChunk(Array<Entity> entities, int start, int end) {
+        for (int i = start; i < end; i++) {
+            process(entities.get(i));
+        }
+    }
+
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    public void setMinChunkSize(int minChunkSize) {
+        this.minChunkSize = Math.max(1, minChunkSize);
+    }
+
+    /**
+     * @return Returns the executor the entities are processed on.
+     */
+    public Executor getExecutor() {
+        if (executor == null) {
+            executor = SharedExecutor.EXECUTOR;
+        }
+        return executor;
+    }
+
+    private static void await(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Lazily created executor shared by all the parallel systems that
+     * were not given an executor of their own. Its threads are daemons,
+     * so it doesn't keep the application alive.
+     */
+    private static class SharedExecutor {
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "artemis-parallel-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+}
@@ -0,0 +1,142 @@
+package com.artemis.systems;
+
+import com.artemis.Entity;
+import com.artemis.Filter;
+import com.artemis.utils.IndexedPriorityQueue;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Replacement for DelayedEntityProcessingSystem that processes every
+ * entity after a delay of its own.
+ *
+ * The entities are kept in an IndexedPriorityQueue keyed by the world time
+ * they are due at, so a cycle only pops the entities that are due instead
+ * of scanning all of them whenever the shortest delay elapses. A delay can
+ * be changed at any time with reschedule(), which costs O(log n).
+ *
+ * The world time is the sum of World.getDelta() over the cycles.
+ */
+public abstract class ScheduledEntityProcessingSystem extends EntitySystem {
+
+    protected IndexedPriorityQueue schedule;
+
+    // Ids of the entities that are due in the current cycle.
+    protected IntArray due;
+
+    protected double time;
+
+    public ScheduledEntityProcessingSystem(Filter filter) {
+        super(filter);
+        schedule = new IndexedPriorityQueue();
+        due = new IntArray();
+    }
+
+    /**
+     * Return the delay until an entity that was added to the system should
+     * be processed for the first time.
+     *
+     * @param e entity
+     * @return delay, or a negative value to leave the entity unscheduled.
+     */
+    protected abstract float getInitialDelay(Entity e);
+
+    /**
+     * Process an entity whose delay expired.
+     *
+     * @param e the entity to process.
+     * @return delay from now until the entity should be processed again,
+     * or a negative value to leave it unscheduled.
+     */
+    protected abstract float processScheduled(Entity e);
+
+    @Override
+    protected final void processEntities(Array<Entity> entities) {
+        time += world.getDelta();
+
+        // pop first, so entities rescheduled without delay wait for the next cycle
+        while (!schedule.isEmpty() && schedule.peekPriority() <= time) {
+            due.add(schedule.poll());
+        }
+        for (int i = 0; i < due.size; i++) {
+            Entity e = world.getEntity(due.get(i));
+            float delay = processScheduled(e);
+            if (delay >= 0 && !schedule.contains(e.id)) {
+                schedule.put(e.id, time + delay);
+            }
+        }
+        due.clear();
+    }
+
+    @Override
+    protected void inserted(Entity e) {
+        float delay = getInitialDelay(e);
+        if (delay >= 0) {
+            schedule.put(e.id, time + delay);
+        } else {
+            schedule.remove(e.id);
+        }
+    }
+
+    @Override
+    protected void removed(Entity e) {
+        schedule.remove(e.id);
+    }
+
+    /**
+     * Changes the delay of an entity of this system, or schedules it
+     * if it isn't scheduled.
+     *
+     * @param e entity
+     * @param delay delay from now until the entity should be processed.
+     */
+    public void reschedule(Entity e, float delay) {
+        schedule.put(e.id, time + delay);
+    }
+
+    /**
+     * Stops an entity from being processed until it's rescheduled.
+     *
+     * @param e entity
+     */
+    public void unschedule(Entity e) {
+        schedule.remove(e.id);
+    }
+
+    /**
+     * Check if an entity is scheduled.
+     *
+     * @param e entity
+     * @return true if the entity will be processed after its delay.
+     */
+    public boolean isScheduled(Entity e) {
+        return schedule.contains(e.id);
+    }
+
+    /**
+     * Get the time until an entity is processed.
+     * Returns zero (0) if the entity is not scheduled.
+     *
+     * @param e entity
+     * @return time until the entity is processed.
+     */
+    public float getRemainingDelay(Entity e) {
+        if (schedule.contains(e.id)) {
+            return (float) (schedule.getPriority(e.id) - time);
+        }
+        return 0;
+    }
+
+    /**
+     * Get the time until the next entity is processed.
+     * Returns zero (0) if no entity is scheduled.
+     *
+     * @return time until the next entity is processed.
+     */
+    public float getRemainingTimeUntilProcessing() {
+        if (schedule.isEmpty()) {
+            return 0;
+        }
+        return (float) (schedule.peekPriority() - time);
+    }
+}
@@ -2,9 +2,10 @@ package com.artemis.systems;
 
 import com.artemis.Entity;
 import com.artemis.Filter;
-import com.artemis.utils.Timer;
-import com.badlogic.gdx.utils.ObjectMap;
-import com.badlogic.gdx.utils.Pool;
+import com.artemis.utils.EntityTimers;
+import com.artemis.utils.TimingWheel;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 
 /**
  * The purpose of this class is to allow systems to execute at varying intervals.
@@ -15,6 +16,11 @@ import com.badlogic.gdx.utils.Pool;
  * So you can set the system to run in 300 ms. to perform the animation. This
  * will save CPU cycles in some scenarios.
  * 
+ * The delays are kept in a TimingWheel by default, so a cycle only
+ * touches the entities whose delay expires in it instead of updating a
+ * timer for every entity. A TimerArray can be passed instead when most
+ * delays are short.
+ * 
  * Note, this system stores Entity state and thus is not true to the Entity
  * System priciples. This was done to avoid storing extra information on
  * Entities whether in form of components or otherwise. Implementing an
@@ -23,39 +29,19 @@ import com.badlogic.gdx.utils.Pool;
  * @author apotapov
  *
  */
-public abstract class SkipEntityProcessingSystem extends EntityProcessingSystem {
-
-    /**
-     * Timer that keeps track of a delay for each entity and executes
-     * processDelayed(e) when a delay expires.
-     * 
-     * @author apotapov
-     *
-     */
-    private class SkipTimer extends Timer {
-
-        Entity e;
-
-        public SkipTimer(float delay, boolean repeat) {
-            super(delay, repeat);
-        }
+public abstract class SkipEntityProcessingSystem extends EntitySystem {
 
-        @Override
-        public void execute() {
-            processDelayed(e);
-        }
+    // Default number of timing wheel slots a delay is spread over.
+    private static final int TICKS_PER_DELAY = 8;
 
-        @Override
-        public void reset() {
-            super.reset();
-            e = null;
-        }
-    }
+    // Delays of the entities, keyed by entity id.
+    protected EntityTimers timers;
 
-    // Entities and their associated timers.
-    ObjectMap<Entity, SkipTimer> timerMap;
+    // Ids of the entities whose delay expired in the current cycle.
+    protected IntArray expired;
 
-    Pool<SkipTimer> timerPool;
+    protected final float delay;
+    protected final boolean repeat;
 
     /**
      * Creates a system with a specified delay. Does not repeat the action.
@@ -74,42 +60,49 @@ public abstract class SkipEntityProcessingSystem extends EntityProcessingSystem
      * @param delay Delay for execution.
      * @param repeat Whether the action should be repeated.
      */
-    public SkipEntityProcessingSystem(Filter filter, final float delay, final boolean repeat) {
-        super(filter);
-        timerMap = new ObjectMap<Entity, SkipTimer>();
-
-        timerPool = new Pool<SkipTimer>() {
-
-            @Override
-            protected SkipTimer newObject() {
-                return new SkipTimer(delay, repeat);
-            }
+    public SkipEntityProcessingSystem(Filter filter, float delay, boolean repeat) {
+        this(filter, delay, repeat, new TimingWheel(delay > 0 ? delay / TICKS_PER_DELAY : 1));
+    }
 
-        };
+    /**
+     * Creates a system with a specified delay, whether the action is repeatable
+     * and the timers keeping the delays.
+     * 
+     * @param filter Filter for the system.
+     * @param delay Delay for execution.
+     * @param repeat Whether the action should be repeated.
+     * @param timers Timers keeping the delays, e.g. a TimingWheel or a TimerArray.
+     */
+    public SkipEntityProcessingSystem(Filter filter, float delay, boolean repeat, EntityTimers timers) {
+        super(filter);
+        this.delay = delay;
+        this.repeat = repeat;
+        this.timers = timers;
+        expired = new IntArray();
     }
 
     protected abstract void processDelayed(Entity e);
 
+    /**
+     * Advances the delays and processes only the entities
+     * whose delay expired.
+     */
     @Override
-    protected final void process(Entity e) {
-        Timer entityTimer = timerMap.get(e);
-        entityTimer.update(world.getDelta());
+    protected final void processEntities(Array<Entity> entities) {
+        timers.update(world.getDelta(), expired);
+        for (int i = 0; i < expired.size; i++) {
+            processDelayed(world.getEntity(expired.get(i)));
+        }
+        expired.clear();
     }
 
     @Override
     protected void inserted(Entity e) {
-        if (timerMap.containsKey(e)) {
-            timerPool.free(timerMap.remove(e));
-        }
-        SkipTimer timer = timerPool.obtain();
-        timer.e = e;
-        timerMap.put(e, timer);
+        timers.start(e.id, delay, repeat ? delay : 0);
     }
 
     @Override
     protected void removed(Entity e) {
-        if (timerMap.containsKey(e)) {
-            timerPool.free(timerMap.remove(e));
-        }
+        timers.cancel(e.id);
     }
 }
@@ -1,9 +1,13 @@
 package com.artemis.systems.event;
 
 import com.artemis.systems.EntitySystem;
+import com.artemis.utils.SafeArray;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
 import com.badlogic.gdx.utils.ObjectMap;
-import com.badlogic.gdx.utils.ObjectMap.Entry;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.ReflectionPool;
 
 /**
  * Basic implementation of event system. All the events that are
@@ -20,27 +24,144 @@ import com.badlogic.gdx.utils.ObjectMap.Entry;
 public class BasicEventDeliverySystem implements EventDeliverySystem {
 
     /**
-     * Event buffer by type of event, that all new events get loaded into.
+     * Event buffer by event type index, that all new events get loaded into.
      */
-    protected ObjectMap<Class<? extends SystemEvent>, Array<SystemEvent>> buffer;
+    protected SafeArray<Array<SystemEvent>> buffer;
 
     /**
      * After each process cycle the events from the buffer get transferred
      * to currentEvents to be consumed by the systems that call getEvents().
+     * Indexed by event type index.
      */
-    protected ObjectMap<Class<? extends SystemEvent>, Array<SystemEvent>> currentEvents;
+    protected SafeArray<Array<SystemEvent>> currentEvents;
 
     /**
      * Used to generate unique event identifiers.
      */
     protected int currentEventId;
 
+    /**
+     * Type indices of all the event types that have queues.
+     */
+    protected IntArray eventTypes;
+
+    /**
+     * Coalescing policy by event type index, null meaning NONE.
+     */
+    protected SafeArray<CoalescingPolicy> coalescingPolicies;
+
+    /**
+     * Position of each coalescing key in the buffer and currentEvents
+     * queues, by event type index.
+     */
+    protected SafeArray<IntIntMap> bufferKeys;
+    protected SafeArray<IntIntMap> currentKeys;
+
+    /**
+     * Returned by getEventQueue() for types that have no queue yet.
+     */
+    protected final Array<SystemEvent> noEvents;
+
+    /**
+     * Event pools of this system, guarded by themselves. Every world
+     * pools its own events, so worlds don't contend for a shared pool.
+     */
+    protected final ObjectMap<Class<?>, Pool<?>> pools;
+
     /**
      * Default constructor.
      */
     public BasicEventDeliverySystem() {
-        this.buffer = new ObjectMap<Class<? extends SystemEvent>, Array<SystemEvent>>();
-        this.currentEvents = new ObjectMap<Class<? extends SystemEvent>, Array<SystemEvent>>();
+        this.buffer = new SafeArray<Array<SystemEvent>>();
+        this.currentEvents = new SafeArray<Array<SystemEvent>>();
+        this.eventTypes = new IntArray();
+        this.noEvents = new Array<SystemEvent>(0);
+        this.coalescingPolicies = new SafeArray<CoalescingPolicy>();
+        this.bufferKeys = new SafeArray<IntIntMap>();
+        this.currentKeys = new SafeArray<IntIntMap>();
+        this.pools = new ObjectMap<Class<?>, Pool<?>>();
+    }
+
+    /**
+     * Creates an event of a specified type from the pools of this system.
+     * Events are freed by the system once they have been delivered. Safe
+     * to call from any thread.
+     * 
+     * @param <T> Type of event
+     * @param type Type of event to create.
+     * @return Pooled event.
+     */
+    public <T extends SystemEvent> T createEvent(Class<T> type) {
+        synchronized (pools) {
+            return getPool(pools, type).obtain();
+        }
+    }
+
+    /**
+     * Returns an event to the pools of this system once it is no longer
+     * queued.
+     * 
+     * @param event Event to free.
+     */
+    protected void free(SystemEvent event) {
+        synchronized (pools) {
+            freeTo(pools, event);
+        }
+    }
+
+    /**
+     * Returns events to the pools of this system.
+     * 
+     * @param events Events to free.
+     */
+    protected void free(Array<SystemEvent> events) {
+        synchronized (pools) {
+            for (int i = 0; i < events.size; i++) {
+                freeTo(pools, events.get(i));
+            }
+        }
+    }
+
+    /**
+     * Helper method to retrieve the pool of an event type from a set of pools.
+     * 
+     * @param <T> Type of event
+     * @param pools Pools by event class.
+     * @param type Type of event.
+     * @return the pool of the type, created if necessary.
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T extends SystemEvent> Pool<T> getPool(ObjectMap<Class<?>, Pool<?>> pools, Class<T> type) {
+        Pool<T> pool = (Pool<T>) pools.get(type);
+        if (pool == null) {
+            pool = new ReflectionPool<T>(type, 4, 100);
+            pools.put(type, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * Helper method to free an event into a set of pools.
+     * 
+     * @param pools Pools by event class.
+     * @param event Event to free.
+     */
+    @SuppressWarnings("unchecked")
+    protected static void freeTo(ObjectMap<Class<?>, Pool<?>> pools, SystemEvent event) {
+        Pool<SystemEvent> pool = (Pool<SystemEvent>) (Pool<?>) getPool(pools, event.getClass());
+        pool.free(event);
+    }
+
+    /**
+     * Sets how duplicate events of a type are handled. Duplicates are
+     * collapsed when they are posted, so they don't take up queue space
+     * and aren't processed more than once.
+     * 
+     * @param type Type of event.
+     * @param policy Policy to use for the type.
+     */
+    public void setCoalescingPolicy(Class<? extends SystemEvent> type, CoalescingPolicy policy) {
+        coalescingPolicies.set(SystemEvent.getEventTypeIndex(type), policy);
     }
 
     /**
@@ -55,37 +176,122 @@ public class BasicEventDeliverySystem implements EventDeliverySystem {
             event.sender = sender;
 
             // get the appropriate buffer queue for the event
-            Class<? extends SystemEvent> type = event.getClass();
-            Array<SystemEvent> bufferQueue;
-            if (buffer.containsKey(type)) {
-                bufferQueue = buffer.get(type);
-            } else {
-                bufferQueue = new Array<SystemEvent>();
-                buffer.put(type, bufferQueue);
+            int typeIndex = SystemEvent.getEventTypeIndex(event.getClass());
+            Array<SystemEvent> bufferQueue = buffer.get(typeIndex);
+            if (bufferQueue == null) {
+                registerEventType(typeIndex);
+                bufferQueue = buffer.get(typeIndex);
             }
 
             // add to the queue
-            bufferQueue.add(event);
+            queueEvent(bufferQueue, bufferKeys, typeIndex, event);
+        }
+    }
+
+    /**
+     * Creates the buffer and currentEvents queues of an event type.
+     * 
+     * @param typeIndex Type index of the event.
+     */
+    protected void registerEventType(int typeIndex) {
+        buffer.set(typeIndex, new Array<SystemEvent>());
+        currentEvents.set(typeIndex, new Array<SystemEvent>());
+        bufferKeys.set(typeIndex, new IntIntMap());
+        currentKeys.set(typeIndex, new IntIntMap());
+        eventTypes.add(typeIndex);
+    }
+
+    /**
+     * Adds an event to a queue, applying the coalescing policy of its type.
+     * 
+     * @param queue Queue of the event's type.
+     * @param keysByType Positions of the coalescing keys in the queues.
+     * @param typeIndex Type index of the event.
+     * @param event Event to add.
+     */
+    protected void queueEvent(Array<SystemEvent> queue, SafeArray<IntIntMap> keysByType,
+            int typeIndex, SystemEvent event) {
+        CoalescingPolicy policy = coalescingPolicies.get(typeIndex);
+        if (policy == null || policy == CoalescingPolicy.NONE) {
+            queue.add(event);
+            return;
+        }
+
+        IntIntMap keys = keysByType.get(typeIndex);
+        int key = event.getCoalescingKey();
+        int index = keys.get(key, -1);
+        if (index < 0) {
+            keys.put(key, queue.size);
+            queue.add(event);
+            return;
+        }
+
+        SystemEvent existing = queue.get(index);
+        switch (policy) {
+        case KEEP_LAST:
+            queue.set(index, event);
+            free(existing);
+            break;
+        case MERGE:
+            existing.merge(event);
+            free(event);
+            break;
+        default:
+            free(event);
+            break;
+        }
+    }
+
+    /**
+     * Adds an event to currentEvents, registering its type if necessary.
+     * 
+     * @param event Event to deliver.
+     */
+    protected void deliverEvent(SystemEvent event) {
+        int typeIndex = SystemEvent.getEventTypeIndex(event.getClass());
+        Array<SystemEvent> queue = currentEvents.get(typeIndex);
+        if (queue == null) {
+            registerEventType(typeIndex);
+            queue = currentEvents.get(typeIndex);
         }
+        queueEvent(queue, currentKeys, typeIndex, event);
     }
 
     /**
      * Retrieves events of specific type and adds them to the events Set.
+     * Events targeted at other systems are left out.
      */
     @SuppressWarnings("unchecked")
     @Override
     public <T extends SystemEvent> void getEvents(EntitySystem pollingSystem, Class<T> type, Array<T> events) {
-        if (currentEvents.containsKey(type)) {
-            Array<SystemEvent> currentEventsByType = currentEvents.get(type);
+        Array<SystemEvent> currentEventsByType = currentEvents.get(SystemEvent.getEventTypeIndex(type));
+        if (currentEventsByType != null) {
             for (int i = 0; i < currentEventsByType.size; i++) {
                 SystemEvent event = currentEventsByType.get(i);
-                if (!event.handled) {
+                if (!event.handled && event.isDeliveredTo(pollingSystem)) {
                     events.add((T)event);
                 }
             }
         }
     }
 
+    /**
+     * Returns the events of a type that are available to systems in this
+     * processing cycle, without copying them. The returned array belongs
+     * to the event system and must not be modified. Unlike getEvents() it
+     * also contains handled events, which should be skipped.
+     * 
+     * @param <T> Type of event
+     * @param pollingSystem System that is polling system.
+     * @param typeIndex Type index of the events, see SystemEvent.getEventTypeIndex().
+     * @return events of the type, possibly empty.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends SystemEvent> Array<T> getEventQueue(EntitySystem pollingSystem, int typeIndex) {
+        Array<SystemEvent> queue = currentEvents.get(typeIndex);
+        return (Array<T>) (queue != null ? queue : noEvents);
+    }
+
     @Override
     public void initialize() {
     }
@@ -98,61 +304,69 @@ public class BasicEventDeliverySystem implements EventDeliverySystem {
     public void update() {
         synchronized (buffer) {
             // clear out all the existing events
-            for (Array<SystemEvent> queue : currentEvents.values()) {
-                SystemEvent.free(queue);
-                queue.clear();
-            }
+            clearCurrentEvents();
+
             // transfer from buffer to current events
-            transferEvents(buffer, currentEvents);
+            transferEvents();
 
             // clear out the buffer
             clearBuffer();
         }
     }
 
+    /**
+     * Helper method to free and clear the events of the last cycle.
+     */
+    protected void clearCurrentEvents() {
+        for (int i = 0; i < eventTypes.size; i++) {
+            int typeIndex = eventTypes.get(i);
+            Array<SystemEvent> queue = currentEvents.get(typeIndex);
+            free(queue);
+            queue.clear();
+            currentKeys.get(typeIndex).clear();
+        }
+    }
+
     /**
      * Helper method to clears the buffer.
      */
     protected void clearBuffer() {
-        for (Array<SystemEvent> events : buffer.values()) {
-            events.clear();
+        for (int i = 0; i < eventTypes.size; i++) {
+            int typeIndex = eventTypes.get(i);
+            buffer.get(typeIndex).clear();
+            bufferKeys.get(typeIndex).clear();
         }
     }
 
     /**
-     * Helper method to transer events from one object map to another.
-     * @param from Map to transfer from.
-     * @param to Map to transfer to.
+     * Helper method to transfer events from the buffer to currentEvents.
      */
-    protected static void transferEvents(ObjectMap<Class<? extends SystemEvent>, Array<SystemEvent>> from,
-            ObjectMap<Class<? extends SystemEvent>, Array<SystemEvent>> to) {
-
-        for (Entry<Class<? extends SystemEvent>, Array<SystemEvent>> entry : from.entries()) {
-
-            // ensure that the "to" map has the required event queues
-            Array<SystemEvent> queue;
-            if (to.containsKey(entry.key)) {
-                queue = to.get(entry.key);
-            } else {
-                queue = new Array<SystemEvent>();
-                to.put(entry.key, queue);
-            }
-            queue.addAll(entry.value);
+    protected void transferEvents() {
+        for (int i = 0; i < eventTypes.size; i++) {
+            int typeIndex = eventTypes.get(i);
+            currentEvents.get(typeIndex).addAll(buffer.get(typeIndex));
         }
     }
 
     @Override
     public void dispose() {
-        for (Array<SystemEvent> events : buffer.values()) {
-            SystemEvent.free(events);
+        for (int i = 0; i < eventTypes.size; i++) {
+            int typeIndex = eventTypes.get(i);
+            Array<SystemEvent> events = buffer.get(typeIndex);
+            free(events);
             events.clear();
-        }
-        buffer.clear();
 
-        for (Array<SystemEvent> events : currentEvents.values()) {
-            SystemEvent.free(events);
+            events = currentEvents.get(typeIndex);
+            free(events);
             events.clear();
         }
+        buffer.clear();
         currentEvents.clear();
+        bufferKeys.clear();
+        currentKeys.clear();
+        eventTypes.clear();
+        synchronized (pools) {
+            pools.clear();
+        }
     }
 }
@@ -0,0 +1,30 @@
+package com.artemis.systems.event;
+
+/**
+ * How an event delivery system handles several events of the same type
+ * and coalescing key (see SystemEvent.getCoalescingKey()) within a cycle.
+ * The surviving event keeps the queue position of the first one.
+ */
+public enum CoalescingPolicy {
+
+    /**
+     * Every event is delivered, the default.
+     */
+    NONE,
+
+    /**
+     * Only the first event is delivered, later ones are freed.
+     */
+    KEEP_FIRST,
+
+    /**
+     * Only the last event is delivered, earlier ones are freed.
+     */
+    KEEP_LAST,
+
+    /**
+     * Later events are merged into the first one through
+     * SystemEvent.merge() and freed.
+     */
+    MERGE
+}
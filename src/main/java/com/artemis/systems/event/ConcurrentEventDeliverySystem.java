@@ -0,0 +1,187 @@
+package com.artemis.systems.event;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.artemis.systems.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Event delivery system that can be posted to from any thread.
+ *
+ * Every event type gets its own lock-free queue, postEvent() never blocks
+ * and never waits for update(). update() drains the events that were
+ * posted before it started into currentEvents, events posted while it
+ * runs are delivered on the next update. Delivery works the same way
+ * as in BasicEventDeliverySystem: events are available to getEvents()
+ * for one processing cycle.
+ *
+ * update(), getEvents() and dispose() must be called from the thread
+ * processing the world. Events can be created with createEvent() on any
+ * thread, every event type keeps its freed events in a lock-free list.
+ */
+public class ConcurrentEventDeliverySystem extends BasicEventDeliverySystem {
+
+    /**
+     * Queue of posted events of a single type. The counter tracks how
+     * many events have been offered, so draining can stop at the events
+     * that were posted before the drain started. Freed events of the
+     * type wait in the free list until they are created again.
+     */
+    protected static class EventQueue {
+        final Constructor<? extends SystemEvent> constructor;
+        final int typeIndex;
+        final ConcurrentLinkedQueue<SystemEvent> events;
+        final AtomicInteger count;
+        final ConcurrentLinkedQueue<SystemEvent> free;
+
+        EventQueue(Class<? extends SystemEvent> type) {
+            try {
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException(type.getName() + " has no default constructor.", e);
+            }
+            typeIndex = SystemEvent.getEventTypeIndex(type);
+            events = new ConcurrentLinkedQueue<SystemEvent>();
+            count = new AtomicInteger();
+            free = new ConcurrentLinkedQueue<SystemEvent>();
+        }
+    }
+
+    protected final ConcurrentHashMap<Class<? extends SystemEvent>, EventQueue> queuesByType;
+
+    /**
+     * Queues created by producers that update() hasn't picked up yet.
+     */
+    protected final ConcurrentLinkedQueue<EventQueue> newQueues;
+
+    /**
+     * Queues known to update(), only accessed by the processing thread.
+     */
+    protected final Array<EventQueue> queues;
+
+    protected final AtomicInteger nextEventId;
+
+    /**
+     * Default constructor.
+     */
+    public ConcurrentEventDeliverySystem() {
+        queuesByType = new ConcurrentHashMap<Class<? extends SystemEvent>, EventQueue>();
+        newQueues = new ConcurrentLinkedQueue<EventQueue>();
+        queues = new Array<EventQueue>();
+        nextEventId = new AtomicInteger();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends SystemEvent> T createEvent(Class<T> type) {
+        EventQueue queue = getQueue(type);
+        SystemEvent event = queue.free.poll();
+        if (event != null) {
+            return (T) event;
+        }
+        try {
+            return (T) queue.constructor.newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException("Unable to create event " + type.getName(), e);
+        }
+    }
+
+    @Override
+    protected void free(SystemEvent event) {
+        event.reset();
+        getQueue(event.getClass()).free.offer(event);
+    }
+
+    @Override
+    protected void free(Array<SystemEvent> events) {
+        for (int i = 0; i < events.size; i++) {
+            free(events.get(i));
+        }
+    }
+
+    @Override
+    public void postEvent(EntitySystem sender, SystemEvent event) {
+        event.eventId = nextEventId.getAndIncrement();
+        event.sender = sender;
+
+        EventQueue queue = getQueue(event.getClass());
+        queue.events.offer(event);
+        queue.count.incrementAndGet();
+    }
+
+    /**
+     * Returns the queue of an event type, creating it if necessary.
+     *
+     * @param type Type of event.
+     * @return queue of the type.
+     */
+    protected EventQueue getQueue(Class<? extends SystemEvent> type) {
+        EventQueue queue = queuesByType.get(type);
+        if (queue == null) {
+            EventQueue created = new EventQueue(type);
+            queue = queuesByType.putIfAbsent(type, created);
+            if (queue == null) {
+                queue = created;
+                newQueues.offer(created);
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Frees the events of the last cycle and drains the posted
+     * events into currentEvents.
+     */
+    @Override
+    public void update() {
+        EventQueue created;
+        while ((created = newQueues.poll()) != null) {
+            queues.add(created);
+            if (currentEvents.get(created.typeIndex) == null) {
+                registerEventType(created.typeIndex);
+            }
+        }
+
+        clearCurrentEvents();
+
+        for (int i = 0; i < queues.size; i++) {
+            drain(queues.get(i));
+        }
+    }
+
+    /**
+     * Moves the events counted so far out of the queue into currentEvents.
+     * An event that has been offered but not counted yet stays for the
+     * next drain. Duplicate events are coalesced here, as posting is
+     * lock-free.
+     *
+     * @param queue Queue to drain.
+     */
+    protected void drain(EventQueue queue) {
+        Array<SystemEvent> to = currentEvents.get(queue.typeIndex);
+        int count = queue.count.getAndSet(0);
+        for (int i = 0; i < count; i++) {
+            queueEvent(to, currentKeys, queue.typeIndex, queue.events.poll());
+        }
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        for (EventQueue queue : queuesByType.values()) {
+            SystemEvent event;
+            while ((event = queue.events.poll()) != null) {
+                event.reset();
+            }
+            queue.count.set(0);
+            queue.free.clear();
+        }
+        queues.clear();
+        newQueues.clear();
+        queuesByType.clear();
+    }
+}
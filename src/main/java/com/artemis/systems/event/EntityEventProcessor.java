@@ -0,0 +1,52 @@
+package com.artemis.systems.event;
+
+import com.artemis.Entity;
+import com.artemis.World;
+import com.artemis.systems.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Processes a queue of events with the entities of a system. Shared by
+ * the event processing systems, which create one per event type.
+ * 
+ * @param <T> Event that this processor handles.
+ */
+public abstract class EntityEventProcessor<T extends SystemEvent> {
+
+    /**
+     * For each event delivered to the system and each of its entities
+     * processes them as a pair. Events targeted at an entity are only
+     * processed with that entity, and only if the system contains it.
+     * 
+     * @param world World the system belongs to.
+     * @param system System the events are processed for.
+     * @param events Queue of events to process.
+     * @param entities Entities of the system.
+     */
+    public void processEvents(World world, EntitySystem system, Array<T> events, Array<Entity> entities) {
+        for (int i = 0; i < events.size; i++) {
+            T event = events.get(i);
+            if (event.handled || !event.isDeliveredTo(system)) {
+                continue;
+            }
+            if (event.targetEntityId >= 0) {
+                Entity e = world.getEntity(event.targetEntityId);
+                if (e != null && e.getSystemBits().get(system.getSystemIndex())) {
+                    processEvent(e, event);
+                }
+                continue;
+            }
+            for (int j = 0; j < entities.size; j++) {
+                processEvent(entities.get(j), event);
+            }
+        }
+    }
+
+    /**
+     * Processes the event with respect to the specified entity.
+     * 
+     * @param e Entity to process
+     * @param event Event to process
+     */
+    protected abstract void processEvent(Entity e, T event);
+}
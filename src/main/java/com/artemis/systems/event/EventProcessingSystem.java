@@ -15,9 +15,16 @@ import com.badlogic.gdx.utils.Array;
  */
 public abstract class EventProcessingSystem<T extends SystemEvent> extends EntitySystem {
 
-    Array<T> events;
+    int eventTypeIndex;
     Class<T> eventType;
 
+    EntityEventProcessor<T> processor = new EntityEventProcessor<T>() {
+        @Override
+        protected void processEvent(Entity e, T event) {
+            EventProcessingSystem.this.processEvent(e, event);
+        }
+    };
+
     /**
      * Constructs an event system
      * @param filter Filter for this system.
@@ -26,20 +33,16 @@ public abstract class EventProcessingSystem<T extends SystemEvent> extends Entit
     public EventProcessingSystem(Filter filter, Class<T> eventType) {
         super(filter);
         this.eventType = eventType;
-        this.events = new Array<T>();
+        this.eventTypeIndex = SystemEvent.getEventTypeIndex(eventType);
     }
 
     /**
-     * For each event and entity processes them as a pair.
+     * For each event and entity processes them as a pair. Events
+     * targeted at an entity are only processed with that entity.
      */
     @Override
     protected final void processEntities(Array<Entity> entities) {
-        world.getEvents(this, eventType, events);
-        for (T event : events) {
-            for (Entity e : entities) {
-                processEvent(e, event);
-            }
-        }
+        processor.processEvents(world, this, world.<T>getEventQueue(this, eventTypeIndex), entities);
     }
 
     /**
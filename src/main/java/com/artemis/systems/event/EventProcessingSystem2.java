@@ -16,12 +16,26 @@ import com.badlogic.gdx.utils.Array;
  */
 public abstract class EventProcessingSystem2<T extends SystemEvent, U extends SystemEvent> extends EntitySystem {
 
-    Array<T> events;
+    int eventTypeIndex;
     Class<T> eventType;
 
-    Array<U> events2;
+    int eventTypeIndex2;
     Class<U> eventType2;
 
+    EntityEventProcessor<T> processor = new EntityEventProcessor<T>() {
+        @Override
+        protected void processEvent(Entity e, T event) {
+            EventProcessingSystem2.this.processEvent(e, event);
+        }
+    };
+
+    EntityEventProcessor<U> processor2 = new EntityEventProcessor<U>() {
+        @Override
+        protected void processEvent(Entity e, U event) {
+            EventProcessingSystem2.this.processEvent2(e, event);
+        }
+    };
+
     /**
      * Constructs an event system
      * @param filter Filter for this system.
@@ -32,30 +46,20 @@ public abstract class EventProcessingSystem2<T extends SystemEvent, U extends Sy
         super(filter);
 
         this.eventType = eventType;
-        this.events = new Array<T>();
+        this.eventTypeIndex = SystemEvent.getEventTypeIndex(eventType);
 
         this.eventType2 = eventType2;
-        this.events2 = new Array<U>();
+        this.eventTypeIndex2 = SystemEvent.getEventTypeIndex(eventType2);
     }
 
     /**
-     * For each event and entity processes them as a pair.
+     * For each event and entity processes them as a pair. Events
+     * targeted at an entity are only processed with that entity.
      */
     @Override
     protected final void processEntities(Array<Entity> entities) {
-        world.getEvents(this, eventType, events);
-        for (T event : events) {
-            for (Entity e : entities) {
-                processEvent(e, event);
-            }
-        }
-
-        world.getEvents(this, eventType2, events2);
-        for (U event : events2) {
-            for (Entity e : entities) {
-                processEvent2(e, event);
-            }
-        }
+        processor.processEvents(world, this, world.<T>getEventQueue(this, eventTypeIndex), entities);
+        processor2.processEvents(world, this, world.<U>getEventQueue(this, eventTypeIndex2), entities);
     }
 
     /**
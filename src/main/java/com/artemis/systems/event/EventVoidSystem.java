@@ -13,7 +13,7 @@ import com.badlogic.gdx.utils.Array;
  */
 public abstract class EventVoidSystem<T extends SystemEvent> extends VoidEntitySystem {
 
-    Array<T> events;
+    int eventTypeIndex;
     Class<T> eventType;
 
     /**
@@ -22,13 +22,17 @@ public abstract class EventVoidSystem<T extends SystemEvent> extends VoidEntityS
      */
     public EventVoidSystem(Class<T> eventType) {
         this.eventType = eventType;
-        this.events = new Array<T>();
+        this.eventTypeIndex = SystemEvent.getEventTypeIndex(eventType);
     }
 
     @Override
     public final void processSystem() {
-        world.getEvents(this, eventType, events);
-        for (T event : events) {
+        Array<T> events = world.getEventQueue(this, eventTypeIndex);
+        for (int i = 0; i < events.size; i++) {
+            T event = events.get(i);
+            if (event.handled || !event.isDeliveredTo(this)) {
+                continue;
+            }
             processEvent(event);
         }
     }
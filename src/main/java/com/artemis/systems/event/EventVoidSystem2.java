@@ -13,10 +13,10 @@ import com.badlogic.gdx.utils.Array;
  */
 public abstract class EventVoidSystem2<T extends SystemEvent, U extends SystemEvent> extends VoidEntitySystem {
 
-    Array<T> events;
+    int eventTypeIndex;
     Class<T> eventType;
 
-    Array<U> events2;
+    int eventTypeIndex2;
     Class<U> eventType2;
 
     /**
@@ -26,22 +26,30 @@ public abstract class EventVoidSystem2<T extends SystemEvent, U extends SystemEv
      */
     public EventVoidSystem2(Class<T> eventType, Class<U> eventType2) {
         this.eventType = eventType;
-        this.events = new Array<T>();
+        this.eventTypeIndex = SystemEvent.getEventTypeIndex(eventType);
 
         this.eventType2 = eventType2;
-        this.events2 = new Array<U>();
+        this.eventTypeIndex2 = SystemEvent.getEventTypeIndex(eventType2);
 
     }
 
     @Override
     public final void processSystem() {
-        world.getEvents(this, eventType, events);
-        for (T event : events) {
+        Array<T> events = world.getEventQueue(this, eventTypeIndex);
+        for (int i = 0; i < events.size; i++) {
+            T event = events.get(i);
+            if (event.handled || !event.isDeliveredTo(this)) {
+                continue;
+            }
             processEvent(event);
         }
 
-        world.getEvents(this, eventType2, events2);
-        for (U event : events2) {
+        Array<U> events2 = world.getEventQueue(this, eventTypeIndex2);
+        for (int i = 0; i < events2.size; i++) {
+            U event = events2.get(i);
+            if (event.handled || !event.isDeliveredTo(this)) {
+                continue;
+            }
             processEvent2(event);
         }
     }
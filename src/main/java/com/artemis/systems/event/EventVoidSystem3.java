@@ -13,13 +13,13 @@ import com.badlogic.gdx.utils.Array;
  */
 public abstract class EventVoidSystem3<T extends SystemEvent, U extends SystemEvent, V extends SystemEvent> extends VoidEntitySystem {
 
-    Array<T> events;
+    int eventTypeIndex;
     Class<T> eventType;
 
-    Array<U> events2;
+    int eventTypeIndex2;
     Class<U> eventType2;
 
-    Array<V> events3;
+    int eventTypeIndex3;
     Class<V> eventType3;
 
     /**
@@ -30,29 +30,41 @@ public abstract class EventVoidSystem3<T extends SystemEvent, U extends SystemEv
      */
     public EventVoidSystem3(Class<T> eventType, Class<U> eventType2, Class<V> eventType3) {
         this.eventType = eventType;
-        this.events = new Array<T>();
+        this.eventTypeIndex = SystemEvent.getEventTypeIndex(eventType);
 
         this.eventType2 = eventType2;
-        this.events2 = new Array<U>();
+        this.eventTypeIndex2 = SystemEvent.getEventTypeIndex(eventType2);
 
         this.eventType3 = eventType3;
-        this.events3 = new Array<V>();
+        this.eventTypeIndex3 = SystemEvent.getEventTypeIndex(eventType3);
     }
 
     @Override
     public final void processSystem() {
-        world.getEvents(this, eventType, events);
-        for (T event : events) {
+        Array<T> events = world.getEventQueue(this, eventTypeIndex);
+        for (int i = 0; i < events.size; i++) {
+            T event = events.get(i);
+            if (event.handled || !event.isDeliveredTo(this)) {
+                continue;
+            }
             processEvent(event);
         }
 
-        world.getEvents(this, eventType2, events2);
-        for (U event : events2) {
+        Array<U> events2 = world.getEventQueue(this, eventTypeIndex2);
+        for (int i = 0; i < events2.size; i++) {
+            U event = events2.get(i);
+            if (event.handled || !event.isDeliveredTo(this)) {
+                continue;
+            }
             processEvent2(event);
         }
 
-        world.getEvents(this, eventType3, events3);
-        for (V event : events3) {
+        Array<V> events3 = world.getEventQueue(this, eventTypeIndex3);
+        for (int i = 0; i < events3.size; i++) {
+            V event = events3.get(i);
+            if (event.handled || !event.isDeliveredTo(this)) {
+                continue;
+            }
             processEvent3(event);
         }
     }
@@ -0,0 +1,153 @@
+package com.artemis.systems.event;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import com.artemis.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Sort;
+
+/**
+ * Event delivery system that delivers events by priority and can
+ * postpone their delivery.
+ *
+ * Events are delivered in the cycle after they were posted, like in
+ * BasicEventDeliverySystem, unless they have a delay (world time) or a
+ * frameDelay (processing cycles). Postponed events wait in binary heaps
+ * ordered by their due frame and due time, so systems don't need their
+ * own pending lists and timers. An event with both delays first waits
+ * for its frames and then for its time. Within a cycle the events of a
+ * type are delivered by descending priority, then in post order.
+ *
+ * The world time is the sum of World.getDelta() over the cycles.
+ */
+public class ScheduledEventDeliverySystem extends BasicEventDeliverySystem {
+
+    protected final World world;
+
+    protected final PriorityQueue<SystemEvent> frameQueue;
+    protected final PriorityQueue<SystemEvent> timeQueue;
+
+    /**
+     * Events due in the current cycle, before they are sorted by priority.
+     */
+    protected final Array<SystemEvent> ready;
+    protected final Comparator<SystemEvent> priorityOrder;
+
+    /**
+     * Sorter of this system. Array.sort() uses a shared Sort instance,
+     * which breaks when worlds are processed on several threads.
+     */
+    protected final Sort sort;
+
+    protected long frame;
+    protected double time;
+
+    /**
+     * Create a delivery system for the world.
+     *
+     * @param world World the delivery system is used in, provides the delta.
+     */
+    public ScheduledEventDeliverySystem(World world) {
+        this.world = world;
+        frameQueue = new PriorityQueue<SystemEvent>(16, new Comparator<SystemEvent>() {
+            @Override
+            public int compare(SystemEvent a, SystemEvent b) {
+                return a.dueFrame < b.dueFrame ? -1 : (a.dueFrame > b.dueFrame ? 1 : 0);
+            }
+        });
+        timeQueue = new PriorityQueue<SystemEvent>(16, new Comparator<SystemEvent>() {
+            @Override
+            public int compare(SystemEvent a, SystemEvent b) {
+                return Double.compare(a.dueTime, b.dueTime);
+            }
+        });
+        ready = new Array<SystemEvent>();
+        sort = new Sort();
+        priorityOrder = new Comparator<SystemEvent>() {
+            @Override
+            public int compare(SystemEvent a, SystemEvent b) {
+                if (a.priority != b.priority) {
+                    return a.priority > b.priority ? -1 : 1;
+                }
+                return a.eventId < b.eventId ? -1 : (a.eventId > b.eventId ? 1 : 0);
+            }
+        };
+    }
+
+    /**
+     * Delivers the posted events that aren't postponed and the
+     * scheduled events that have become due.
+     */
+    @Override
+    public void update() {
+        clearCurrentEvents();
+
+        frame++;
+        time += world.getDelta();
+
+        synchronized (buffer) {
+            for (int i = 0; i < eventTypes.size; i++) {
+                int typeIndex = eventTypes.get(i);
+                Array<SystemEvent> queue = buffer.get(typeIndex);
+                for (int j = 0; j < queue.size; j++) {
+                    schedule(queue.get(j));
+                }
+                queue.clear();
+                bufferKeys.get(typeIndex).clear();
+            }
+        }
+
+        while (!frameQueue.isEmpty() && frameQueue.peek().dueFrame <= frame) {
+            schedule(frameQueue.poll());
+        }
+        while (!timeQueue.isEmpty() && timeQueue.peek().dueTime <= time) {
+            ready.add(timeQueue.poll());
+        }
+
+        sort.sort(ready, priorityOrder);
+        for (int i = 0; i < ready.size; i++) {
+            deliverEvent(ready.get(i));
+        }
+        ready.clear();
+    }
+
+    /**
+     * Postpones the event if it has a remaining delay, otherwise
+     * marks it as ready. Delays are cleared once they are scheduled.
+     *
+     * @param event Event to schedule.
+     */
+    protected void schedule(SystemEvent event) {
+        if (event.frameDelay > 0) {
+            event.dueFrame = frame + event.frameDelay;
+            event.frameDelay = 0;
+            frameQueue.add(event);
+        } else if (event.delay > 0) {
+            event.dueTime = time + event.delay;
+            event.delay = 0;
+            timeQueue.add(event);
+        } else {
+            ready.add(event);
+        }
+    }
+
+    /**
+     * @return number of events waiting for their delivery frame or time.
+     */
+    public int getScheduledCount() {
+        return frameQueue.size() + timeQueue.size();
+    }
+
+    @Override
+    public void dispose() {
+        SystemEvent event;
+        while ((event = frameQueue.poll()) != null) {
+            free(event);
+        }
+        while ((event = timeQueue.poll()) != null) {
+            free(event);
+        }
+        super.dispose();
+    }
+}
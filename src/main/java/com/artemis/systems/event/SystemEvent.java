@@ -1,6 +1,8 @@
 package com.artemis.systems.event;
 
+import com.artemis.Entity;
 import com.artemis.systems.EntitySystem;
+import com.artemis.utils.ClassIndexRegistry;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Pool.Poolable;
 import com.badlogic.gdx.utils.Pools;
@@ -20,6 +22,54 @@ public abstract class SystemEvent implements Poolable {
     public EntitySystem sender;
     public boolean handled = false;
 
+    /**
+     * Optional addressing, -1 if the event is not targeted.
+     * An event targeted at an entity is only processed for that entity,
+     * an event targeted at a system is only delivered to that system.
+     */
+    public int targetEntityId = -1;
+    public int targetSystemIndex = -1;
+
+    /**
+     * Scheduling, only used by ScheduledEventDeliverySystem. Events with
+     * a higher priority are delivered first. A delay postpones delivery
+     * by world time, a frame delay by a number of processing cycles.
+     */
+    public int priority;
+    public float delay;
+    public int frameDelay;
+
+    /**
+     * Cycle and world time the event is due, set when it is scheduled.
+     */
+    long dueFrame;
+    double dueTime;
+
+    protected static final ClassIndexRegistry<SystemEvent> eventTypeIndices =
+            new ClassIndexRegistry<SystemEvent>();
+
+    /**
+     * Returns the dense index of an event class, used by event systems
+     * to keep their queues in arrays. Events can be posted from other
+     * threads, so the lookup is thread-safe.
+     * 
+     * @param type Event class to retrieve the index for.
+     * @return Index of the event class.
+     */
+    public static int getEventTypeIndex(Class<? extends SystemEvent> type) {
+        return eventTypeIndices.getIndex(type);
+    }
+
+    /**
+     * Returns the event class of a dense index.
+     * 
+     * @param index Index returned by getEventTypeIndex().
+     * @return Event class with the index.
+     */
+    public static Class<? extends SystemEvent> getEventType(int index) {
+        return eventTypeIndices.getType(index);
+    }
+
     /**
      * Called when an event is rolled back into the pool.
      */
@@ -28,16 +78,78 @@ public abstract class SystemEvent implements Poolable {
         eventId = -1;
         sender = null;
         handled = false;
+        targetEntityId = -1;
+        targetSystemIndex = -1;
+        priority = 0;
+        delay = 0;
+        frameDelay = 0;
         resetForPooling();
     }
 
+    /**
+     * Addresses the event to a single entity. Event processing systems
+     * only process the event for that entity, if it is one of their actives.
+     * 
+     * @param e Target entity.
+     * @return this event for chaining.
+     */
+    public SystemEvent setTargetEntity(Entity e) {
+        targetEntityId = e.id;
+        return this;
+    }
+
+    /**
+     * Addresses the event to a single system. Other systems polling
+     * for events of this type won't receive it.
+     * 
+     * @param system Target system.
+     * @return this event for chaining.
+     */
+    public SystemEvent setTargetSystem(EntitySystem system) {
+        targetSystemIndex = system.getSystemIndex();
+        return this;
+    }
+
+    /**
+     * Checks whether the event should be delivered to a system.
+     * 
+     * @param system System polling for events, can be null.
+     * @return false if the event is targeted at another system.
+     */
+    public boolean isDeliveredTo(EntitySystem system) {
+        return targetSystemIndex < 0 || system == null || targetSystemIndex == system.getSystemIndex();
+    }
+
+    /**
+     * Key identifying duplicate events when the event's type has a
+     * CoalescingPolicy. By default events targeted at the same entity
+     * are duplicates, and so are all untargeted events.
+     * 
+     * @return coalescing key of the event.
+     */
+    public int getCoalescingKey() {
+        return targetEntityId;
+    }
+
+    /**
+     * Merges a later event with the same coalescing key into this one,
+     * used by CoalescingPolicy.MERGE. The other event is freed afterwards.
+     * Does nothing by default, which keeps the first event.
+     * 
+     * @param other Event to merge into this one.
+     */
+    public void merge(SystemEvent other) {
+    }
+
     /**
      * Additional reset logic for specific events.
      */
     protected abstract void resetForPooling();
 
     /**
-     * Factory method to create an event of a specified type. Uses pooling.
+     * Factory method to create an event of a specified type. Uses the
+     * global libgdx pools, which aren't thread safe. Use World.createEvent()
+     * to create events from the pools of the world's event system.
      * 
      * @param <T> Type of event
      * @param type Type of event to create.
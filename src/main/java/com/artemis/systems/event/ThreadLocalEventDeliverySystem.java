@@ -0,0 +1,213 @@
+package com.artemis.systems.event;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.artemis.systems.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Event delivery system where every posting thread writes into its own
+ * buffer, so threads posting at the same time don't contend with each other.
+ *
+ * Event ids are taken from a shared counter, so the events of each buffer
+ * are ordered by id. update() swaps out every buffer and merges them in
+ * eventId order into currentEvents, coalescing duplicate events of types
+ * that have a CoalescingPolicy. The lock of a buffer is only shared
+ * between its thread and update(). Delivery otherwise works the same way
+ * as in BasicEventDeliverySystem: events are available to getEvents()
+ * for one processing cycle.
+ *
+ * The buffer of a thread that has died is dropped once it has been
+ * drained, so short-lived or pooled posting threads don't accumulate.
+ *
+ * Every buffer also pools the events its thread creates. Freed events
+ * are handed back to the buffers when update() swaps them, each buffer
+ * gets at most as many as its thread posted.
+ *
+ * update(), getEvents() and dispose() must be called from the thread
+ * processing the world. Events can be created with createEvent() on any
+ * thread.
+ */
+public class ThreadLocalEventDeliverySystem extends BasicEventDeliverySystem {
+
+    /**
+     * Events posted by a single thread. Posting adds to posting, update()
+     * swaps it with the empty draining array. The pools hold the events
+     * the thread can create.
+     */
+    protected static class PostingBuffer {
+        final Thread owner;
+        Array<SystemEvent> posting = new Array<SystemEvent>();
+        Array<SystemEvent> draining = new Array<SystemEvent>();
+        int next;
+        final ObjectMap<Class<?>, Pool<?>> pools = new ObjectMap<Class<?>, Pool<?>>();
+
+        PostingBuffer(Thread owner) {
+            this.owner = owner;
+        }
+    }
+
+    protected final ThreadLocal<PostingBuffer> localBuffer;
+
+    /**
+     * Buffers of the threads that have posted and are alive or still
+     * have events, guarded by itself.
+     */
+    protected final Array<PostingBuffer> buffers;
+
+    /**
+     * Buffers with events to merge in the current update().
+     */
+    protected final Array<PostingBuffer> mergedBuffers;
+
+    /**
+     * Events freed by the processing thread that haven't been handed
+     * back to a buffer yet.
+     */
+    protected final Array<SystemEvent> freed;
+
+    protected final AtomicInteger nextEventId;
+
+    /**
+     * Default constructor.
+     */
+    public ThreadLocalEventDeliverySystem() {
+        buffers = new Array<PostingBuffer>();
+        mergedBuffers = new Array<PostingBuffer>();
+        freed = new Array<SystemEvent>();
+        nextEventId = new AtomicInteger();
+        localBuffer = new ThreadLocal<PostingBuffer>() {
+            @Override
+            protected PostingBuffer initialValue() {
+                PostingBuffer buffer = new PostingBuffer(Thread.currentThread());
+                synchronized (buffers) {
+                    buffers.add(buffer);
+                }
+                return buffer;
+            }
+        };
+    }
+
+    @Override
+    public <T extends SystemEvent> T createEvent(Class<T> type) {
+        PostingBuffer buffer = localBuffer.get();
+        synchronized (buffer) {
+            return getPool(buffer.pools, type).obtain();
+        }
+    }
+
+    @Override
+    protected void free(SystemEvent event) {
+        freed.add(event);
+    }
+
+    @Override
+    protected void free(Array<SystemEvent> events) {
+        freed.addAll(events);
+    }
+
+    @Override
+    public void postEvent(EntitySystem sender, SystemEvent event) {
+        PostingBuffer buffer = localBuffer.get();
+        synchronized (buffer) {
+            event.eventId = nextEventId.getAndIncrement();
+            event.sender = sender;
+            buffer.posting.add(event);
+        }
+    }
+
+    /**
+     * Frees the events of the last cycle and merges the posted
+     * events into currentEvents. Buffers of dead threads that have
+     * no events left are dropped.
+     */
+    @Override
+    public void update() {
+        clearCurrentEvents();
+
+        mergedBuffers.clear();
+        synchronized (buffers) {
+            for (int i = buffers.size - 1; i >= 0; i--) {
+                PostingBuffer buffer = buffers.get(i);
+                boolean dead;
+                synchronized (buffer) {
+                    // checked before the swap, a thread that is dead by
+                    // now has posted everything it will ever post
+                    dead = !buffer.owner.isAlive();
+                    Array<SystemEvent> posted = buffer.posting;
+                    buffer.posting = buffer.draining;
+                    buffer.draining = posted;
+                    recycle(buffer, posted.size);
+                }
+                if (buffer.draining.size > 0) {
+                    buffer.next = 0;
+                    mergedBuffers.add(buffer);
+                } else if (dead) {
+                    buffers.removeIndex(i);
+                }
+            }
+        }
+
+        merge();
+
+        for (int i = 0; i < mergedBuffers.size; i++) {
+            mergedBuffers.get(i).draining.clear();
+        }
+        mergedBuffers.clear();
+    }
+
+    /**
+     * Hands freed events back to the pools of a buffer. Must hold the
+     * lock of the buffer.
+     *
+     * @param buffer Buffer to give the events to.
+     * @param count Maximum number of events to give.
+     */
+    protected void recycle(PostingBuffer buffer, int count) {
+        for (int i = Math.min(count, freed.size); i > 0; i--) {
+            freeTo(buffer.pools, freed.pop());
+        }
+    }
+
+    /**
+     * Delivers the drained events of the merged buffers in eventId order.
+     */
+    protected void merge() {
+        while (true) {
+            PostingBuffer min = null;
+            int minId = Integer.MAX_VALUE;
+            for (int i = 0; i < mergedBuffers.size; i++) {
+                PostingBuffer buffer = mergedBuffers.get(i);
+                if (buffer.next < buffer.draining.size) {
+                    int eventId = buffer.draining.get(buffer.next).eventId;
+                    if (min == null || eventId < minId) {
+                        min = buffer;
+                        minId = eventId;
+                    }
+                }
+            }
+            if (min == null) {
+                return;
+            }
+            deliverEvent(min.draining.get(min.next++));
+        }
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        synchronized (buffers) {
+            for (int i = 0; i < buffers.size; i++) {
+                PostingBuffer buffer = buffers.get(i);
+                synchronized (buffer) {
+                    buffer.posting.clear();
+                    buffer.draining.clear();
+                    buffer.pools.clear();
+                }
+            }
+        }
+        freed.clear();
+    }
+}
@@ -0,0 +1,252 @@
+package com.artemis.systems.scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.artemis.Component;
+import com.artemis.Filter;
+import com.artemis.managers.ComponentManager;
+import com.artemis.systems.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Runs systems that do not conflict with each other at the same time
+ * on a pool of worker threads.
+ * 
+ * A system reads the component types of its filter and the ones declared
+ * with the Reads annotation, and writes the ones declared with the Writes
+ * annotation. Two systems conflict if one of them writes a component type
+ * the other one reads or writes. Conflicting systems are processed in the
+ * order they were added to the world, everything else may overlap.
+ * 
+ * A system with neither a Reads nor a Writes annotation is assumed to
+ * touch anything, and runs on its own. This is also what systems that
+ * create or delete entities, or add and remove components, must do,
+ * as those operations are not thread safe. Annotated systems may only
+ * modify the component data they declare, and post events.
+ * 
+ * Entity additions, changes and deletions are still applied by World
+ * on the calling thread before the systems are processed.
+ * 
+ * Use World.setSystemScheduler() to enable.
+ */
+public class ParallelSystemScheduler implements SystemScheduler {
+
+    /**
+     * A scheduled system and its position in the dependency graph.
+     */
+    protected class Node implements Runnable {
+        final EntitySystem system;
+        final Bits reads;
+        final Bits writes;
+        final boolean exclusive;
+
+        /**
+         * Nodes that have to wait for this node to finish.
+         */
+        final IntArray dependents;
+        int dependencies;
+        final AtomicInteger remaining;
+
+        Node(EntitySystem system) {
+            this.system = system;
+            this.reads = new Bits();
+            this.writes = new Bits();
+            this.dependents = new IntArray();
+            this.remaining = new AtomicInteger();
+
+            Reads readsAnnotation = system.getClass().getAnnotation(Reads.class);
+            Writes writesAnnotation = system.getClass().getAnnotation(Writes.class);
+            exclusive = readsAnnotation == null && writesAnnotation == null;
+
+            Filter filter = system.getFilter();
+            reads.or(filter.allSet);
+            reads.or(filter.anySet);
+            if (readsAnnotation != null) {
+                set(reads, readsAnnotation.value());
+            }
+            if (writesAnnotation != null) {
+                set(writes, writesAnnotation.value());
+            }
+        }
+
+        boolean conflicts(Node other) {
+            return exclusive || other.exclusive
+                    || writes.intersects(other.reads) || writes.intersects(other.writes)
+                    || other.writes.intersects(reads);
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (failure.get() == null && !system.isPassive()) {
+                    system.process();
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                completed(this);
+            }
+        }
+    }
+
+    protected ExecutorService executor;
+    protected boolean ownsExecutor;
+
+    /**
+     * Systems the current dependency graph was built for.
+     */
+    protected Array<EntitySystem> scheduled;
+    protected Array<Node> nodes;
+
+    protected CountDownLatch pending;
+    protected final AtomicReference<Throwable> failure;
+
+    /**
+     * Creates a scheduler with a worker per available processor.
+     */
+    public ParallelSystemScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a scheduler with the specified number of workers.
+     * 
+     * @param threads Number of worker threads.
+     */
+    public ParallelSystemScheduler(int threads) {
+        this(Executors.newFixedThreadPool(Math.max(1, threads)));
+        ownsExecutor = true;
+    }
+
+    /**
+     * Creates a scheduler that processes systems on the specified executor.
+     * The executor is not shut down when the scheduler is disposed.
+     * 
+     * @param executor Executor to run systems on.
+     */
+    public ParallelSystemScheduler(ExecutorService executor) {
+        this.executor = executor;
+        this.scheduled = new Array<EntitySystem>();
+        this.nodes = new Array<Node>();
+        this.failure = new AtomicReference<Throwable>();
+    }
+
+    @Override
+    public void process(Array<EntitySystem> systems) {
+        if (!isScheduled(systems)) {
+            build(systems);
+        }
+        if (nodes.size == 0) {
+            return;
+        }
+
+        pending = new CountDownLatch(nodes.size);
+        for (int i = 0; i < nodes.size; i++) {
+            Node node = nodes.get(i);
+            node.remaining.set(node.dependencies);
+        }
+        for (int i = 0; i < nodes.size; i++) {
+            Node node = nodes.get(i);
+            if (node.dependencies == 0) {
+                executor.execute(node);
+            }
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                pending.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        Throwable t = failure.getAndSet(null);
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    /**
+     * Called by a node once its system has been processed. Releases
+     * the dependents that no longer wait for anything.
+     */
+    protected void completed(Node node) {
+        for (int i = 0; i < node.dependents.size; i++) {
+            Node dependent = nodes.get(node.dependents.get(i));
+            if (dependent.remaining.decrementAndGet() == 0) {
+                executor.execute(dependent);
+            }
+        }
+        pending.countDown();
+    }
+
+    /**
+     * Checks whether the dependency graph was built for the specified systems.
+     */
+    protected boolean isScheduled(Array<EntitySystem> systems) {
+        if (systems.size != scheduled.size) {
+            return false;
+        }
+        for (int i = 0; i < systems.size; i++) {
+            if (systems.get(i) != scheduled.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the dependency graph. A system depends on every system
+     * added before it that it conflicts with.
+     */
+    protected void build(Array<EntitySystem> systems) {
+        scheduled.clear();
+        scheduled.addAll(systems);
+        nodes.clear();
+
+        for (int i = 0; i < systems.size; i++) {
+            Node node = new Node(systems.get(i));
+            for (int j = 0; j < nodes.size; j++) {
+                Node previous = nodes.get(j);
+                if (previous.conflicts(node)) {
+                    previous.dependents.add(i);
+                    node.dependencies++;
+                }
+            }
+            nodes.add(node);
+        }
+    }
+
+    /**
+     * Helper method to set the bits of the specified component types.
+     */
+    protected static void set(Bits bits, Class<? extends Component>[] types) {
+        for (Class<? extends Component> type : types) {
+            bits.set(ComponentManager.getComponentClassIndex(type));
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+        scheduled.clear();
+        nodes.clear();
+    }
+}
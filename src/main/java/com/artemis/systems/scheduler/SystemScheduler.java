@@ -0,0 +1,19 @@
+package com.artemis.systems.scheduler;
+
+import com.artemis.systems.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Interface for schedulers that World.process() hands its systems to,
+ * once the entity changes of the frame have been applied.
+ */
+public interface SystemScheduler extends Disposable {
+
+    /**
+     * Process all non-passive systems. Returns once all of them are processed.
+     * 
+     * @param systems Systems of the world in the order they were added.
+     */
+    public void process(Array<EntitySystem> systems);
+}
@@ -0,0 +1,23 @@
+package com.artemis.systems.scheduler;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.artemis.Component;
+
+/**
+ * Declares the component types an EntitySystem modifies. Used by
+ * ParallelSystemScheduler to find systems that can safely run at
+ * the same time.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Writes {
+    Class<? extends Component>[] value();
+}
@@ -0,0 +1,102 @@
+package com.artemis.utils;
+
+import com.artemis.Component;
+
+/**
+ * Primitive component storage that keeps every field in its own array
+ * indexed by entity id, a structure of arrays.
+ *
+ * Systems that go over a few fields of many entities, e.g. positions and
+ * velocities, can stream the field arrays directly:
+ *
+ * float[] x = storage.getFloats(xField);
+ * float[] vx = storage.getFloats(vxField);
+ * for (int i = 0; i &lt; entities.size; i++) {
+ *     int id = entities.get(i).id;
+ *     x[id] += vx[id] * delta;
+ * }
+ *
+ * The arrays are replaced when the storage grows, so they should be
+ * fetched again before every pass.
+ *
+ * @param <T> Type of component stored.
+ */
+public class ArrayComponentStorage<T extends Component> extends PrimitiveComponentStorage<T> {
+
+    protected float[][] floats;
+    protected int[][] ints;
+    protected int capacity;
+
+    /**
+     * @param type Component class, its layout is read through reflection.
+     */
+    public ArrayComponentStorage(Class<T> type) {
+        this(type, 64);
+    }
+
+    /**
+     * @param type Component class, its layout is read through reflection.
+     * @param capacity Initial number of entity ids the arrays hold.
+     */
+    public ArrayComponentStorage(Class<T> type, int capacity) {
+        super(type);
+        this.capacity = capacity;
+        floats = new float[layout.getFloatCount()][capacity];
+        ints = new int[layout.getIntCount()][capacity];
+    }
+
+    /**
+     * @param field Number of a float field, see ComponentLayout.getFloatField().
+     * @return values of the field indexed by entity id.
+     */
+    public float[] getFloats(int field) {
+        return floats[field];
+    }
+
+    /**
+     * @param field Number of an int field, see ComponentLayout.getIntField().
+     * @return values of the field indexed by entity id.
+     */
+    public int[] getInts(int field) {
+        return ints[field];
+    }
+
+    @Override
+    public float getFloat(int entityId, int field) {
+        return floats[field][entityId];
+    }
+
+    @Override
+    public void setFloat(int entityId, int field, float value) {
+        floats[field][entityId] = value;
+    }
+
+    @Override
+    public int getInt(int entityId, int field) {
+        return ints[field][entityId];
+    }
+
+    @Override
+    public void setInt(int entityId, int field, int value) {
+        ints[field][entityId] = value;
+    }
+
+    @Override
+    protected void grow(int entityId) {
+        if (entityId < capacity) {
+            return;
+        }
+        int newCapacity = Math.max(entityId + 1, capacity * 2);
+        for (int i = 0; i < floats.length; i++) {
+            float[] array = new float[newCapacity];
+            System.arraycopy(floats[i], 0, array, 0, capacity);
+            floats[i] = array;
+        }
+        for (int i = 0; i < ints.length; i++) {
+            int[] array = new int[newCapacity];
+            System.arraycopy(ints[i], 0, array, 0, capacity);
+            ints[i] = array;
+        }
+        capacity = newCapacity;
+    }
+}
@@ -0,0 +1,83 @@
+package com.artemis.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns dense indices to classes, e.g. to component or event types, so
+ * they can be used as bit positions and array indices.
+ *
+ * The registry can be used from any thread. Looking up a registered class
+ * doesn't lock; registering a new class does, so indices stay dense even
+ * when threads race to register classes.
+ *
+ * @param <T> Base type of the registered classes.
+ */
+public class ClassIndexRegistry<T> {
+
+    protected final ConcurrentHashMap<Class<? extends T>, Integer> indices;
+    protected volatile int size;
+
+    /**
+     * Class of every index, replaced by a larger copy when a class is registered.
+     */
+    protected volatile Class<?>[] types;
+
+    public ClassIndexRegistry() {
+        indices = new ConcurrentHashMap<Class<? extends T>, Integer>();
+        types = new Class<?>[0];
+    }
+
+    /**
+     * Returns the index of a class, registering the class if necessary.
+     *
+     * @param type Class to retrieve the index for.
+     * @return Index of the class.
+     */
+    public int getIndex(Class<? extends T> type) {
+        Integer index = indices.get(type);
+        if (index != null) {
+            return index;
+        }
+        return register(type);
+    }
+
+    /**
+     * Returns the class registered with an index.
+     *
+     * @param index Index of a registered class.
+     * @return the class with the index.
+     */
+    @SuppressWarnings("unchecked")
+    public Class<? extends T> getType(int index) {
+        return (Class<? extends T>) types[index];
+    }
+
+    /**
+     * @param type Class to look up.
+     * @return whether the class has an index.
+     */
+    public boolean contains(Class<? extends T> type) {
+        return indices.containsKey(type);
+    }
+
+    /**
+     * @return number of registered classes, indices range from 0 to size - 1.
+     */
+    public int size() {
+        return size;
+    }
+
+    protected synchronized int register(Class<? extends T> type) {
+        Integer index = indices.get(type);
+        if (index == null) {
+            index = size;
+            Class<?>[] grown = Arrays.copyOf(types, index + 1);
+            grown[index] = type;
+            types = grown;
+            indices.put(type, index);
+            size = index + 1;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,140 @@
+package com.artemis.utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import com.artemis.Component;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The float and int fields of a component class, as stored by a
+ * PrimitiveComponentStorage.
+ *
+ * All non-static, non-transient float and int fields of the class and its
+ * superclasses are part of the layout, other fields are ignored. Fields
+ * are numbered per primitive type in the order of their names, so the
+ * numbering doesn't depend on how the JVM orders declared fields.
+ */
+public class ComponentLayout {
+
+    protected final Class<? extends Component> type;
+    protected final Field[] floatFields;
+    protected final Field[] intFields;
+
+    /**
+     * Reads the layout of a component class.
+     *
+     * @param type Component class.
+     */
+    public ComponentLayout(Class<? extends Component> type) {
+        this.type = type;
+        Array<Field> floats = new Array<Field>(Field.class);
+        Array<Field> ints = new Array<Field>(Field.class);
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                    continue;
+                }
+                if (field.getType() == float.class) {
+                    floats.add(field);
+                } else if (field.getType() == int.class) {
+                    ints.add(field);
+                } else {
+                    continue;
+                }
+                field.setAccessible(true);
+            }
+        }
+        floatFields = sort(floats.toArray());
+        intFields = sort(ints.toArray());
+    }
+
+    private static Field[] sort(Field[] fields) {
+        Arrays.sort(fields, new Comparator<Field>() {
+            @Override
+            public int compare(Field a, Field b) {
+                return a.getName().compareTo(b.getName());
+            }
+        });
+        return fields;
+    }
+
+    /**
+     * @return the component class.
+     */
+    public Class<? extends Component> getType() {
+        return type;
+    }
+
+    /**
+     * @return number of float fields.
+     */
+    public int getFloatCount() {
+        return floatFields.length;
+    }
+
+    /**
+     * @return number of int fields.
+     */
+    public int getIntCount() {
+        return intFields.length;
+    }
+
+    /**
+     * Returns the number of a float field, look it up once and keep it.
+     *
+     * @param name Name of the field.
+     * @return number of the field among the float fields.
+     */
+    public int getFloatField(String name) {
+        return indexOf(floatFields, name);
+    }
+
+    /**
+     * Returns the number of an int field, look it up once and keep it.
+     *
+     * @param name Name of the field.
+     * @return number of the field among the int fields.
+     */
+    public int getIntField(String name) {
+        return indexOf(intFields, name);
+    }
+
+    private int indexOf(Field[] fields, String name) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].getName().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(type.getName() + " has no field " + name + " of that type.");
+    }
+
+    /**
+     * @param field Number of a float field.
+     * @param component Component to read.
+     * @return value of the field in the component.
+     */
+    public float readFloat(int field, Component component) {
+        try {
+            return floatFields[field].getFloat(component);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param field Number of an int field.
+     * @param component Component to read.
+     * @return value of the field in the component.
+     */
+    public int readInt(int field, Component component) {
+        try {
+            return intFields[field].getInt(component);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.artemis.utils;
+
+import com.artemis.Component;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Storage for all the Components of a single type, keyed by entity id.
+ * 
+ * ComponentManager keeps one storage per Component class. Which implementation
+ * is used for a type is chosen through ComponentManager.setStorage(), the
+ * default being DenseComponentStorage.
+ * 
+ * @param <T> Type of component stored.
+ */
+public abstract class ComponentStorage<T extends Component> {
+
+    /**
+     * Returns the component belonging to the specified entity.
+     * 
+     * @param entityId Id of the entity.
+     * @return Component or null if the entity does not have one.
+     */
+    public abstract T get(int entityId);
+
+    /**
+     * Stores the component for the specified entity.
+     * 
+     * @param entityId Id of the entity.
+     * @param component Component to store.
+     * @return Component previously stored for the entity, or null.
+     */
+    public abstract T set(int entityId, T component);
+
+    /**
+     * Removes the component of the specified entity.
+     * 
+     * @param entityId Id of the entity.
+     * @return The removed component or null if there wasn't one.
+     */
+    public abstract T remove(int entityId);
+
+    /**
+     * Prepares the storage for a batch of components, so it doesn't
+     * have to grow while they are being set.
+     * 
+     * @param maxEntityId Highest entity id of the batch.
+     * @param count Number of components in the batch.
+     */
+    public void ensureCapacity(int maxEntityId, int count) {
+    }
+
+    /**
+     * Whether the storage keeps the component instances passed to set().
+     * Storages that copy the component data instead return false, the
+     * instances then stay with whoever added them and are not freed.
+     * 
+     * @return true if get() returns the stored instances.
+     */
+    public boolean storesInstances() {
+        return true;
+    }
+
+    /**
+     * @return Returns the number of components held by this storage.
+     */
+    public abstract int size();
+
+    /**
+     * Removes all the components from the storage.
+     * 
+     * @param removed Array the removed components are added to.
+     */
+    public abstract void removeAll(Array<? super T> removed);
+}
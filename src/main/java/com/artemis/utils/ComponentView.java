@@ -0,0 +1,60 @@
+package com.artemis.utils;
+
+/**
+ * Flyweight over the fields of a single component in a
+ * PrimitiveComponentStorage.
+ *
+ * A view is moved from entity to entity instead of creating an object per
+ * component, see PrimitiveComponentMapper.getView(). Subclasses can add
+ * named accessors for a component type:
+ *
+ * class PositionView extends ComponentView {
+ *     float getX() { return getFloat(X); }
+ * }
+ */
+public class ComponentView {
+
+    protected final PrimitiveComponentStorage<?> storage;
+    protected int entityId;
+
+    /**
+     * @param storage Storage the view reads and writes.
+     */
+    public ComponentView(PrimitiveComponentStorage<?> storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Points the view at the component of another entity.
+     *
+     * @param entityId Id of the entity.
+     * @return this view.
+     */
+    public ComponentView moveTo(int entityId) {
+        this.entityId = entityId;
+        return this;
+    }
+
+    /**
+     * @return id of the entity the view points at.
+     */
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public float getFloat(int field) {
+        return storage.getFloat(entityId, field);
+    }
+
+    public void setFloat(int field, float value) {
+        storage.setFloat(entityId, field, value);
+    }
+
+    public int getInt(int field) {
+        return storage.getInt(entityId, field);
+    }
+
+    public void setInt(int field, int value) {
+        storage.setInt(entityId, field, value);
+    }
+}
@@ -0,0 +1,76 @@
+package com.artemis.utils;
+
+import com.artemis.Component;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Default component storage. Components are kept in an array
+ * indexed directly by entity id, which makes retrieval a single
+ * array access. The array is as large as the largest entity id
+ * that ever had a component of this type.
+ * 
+ * @param <T> Type of component stored.
+ */
+public class DenseComponentStorage<T extends Component> extends ComponentStorage<T> {
+
+    protected SafeArray<T> components;
+    protected int size;
+
+    public DenseComponentStorage() {
+        components = new SafeArray<T>();
+    }
+
+    @Override
+    public T get(int entityId) {
+        return components.get(entityId);
+    }
+
+    @Override
+    public T set(int entityId, T component) {
+        T current = components.get(entityId);
+        components.set(entityId, component);
+        if (current == null && component != null) {
+            size++;
+        } else if (current != null && component == null) {
+            size--;
+        }
+        return current;
+    }
+
+    @Override
+    public T remove(int entityId) {
+        return set(entityId, null);
+    }
+
+    @Override
+    public void ensureCapacity(int maxEntityId, int count) {
+        int additional = maxEntityId + 1 - components.size;
+        if (additional > 0) {
+            components.ensureCapacity(additional);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void removeAll(Array<? super T> removed) {
+        for (int i = 0; i < components.size; i++) {
+            T component = components.get(i);
+            if (component != null) {
+                removed.add(component);
+            }
+        }
+        components.clear();
+        size = 0;
+    }
+
+    /**
+     * @return Returns the array of components indexed by entity id.
+     */
+    public Array<T> getComponents() {
+        return components;
+    }
+}
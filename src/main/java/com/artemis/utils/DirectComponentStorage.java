@@ -0,0 +1,106 @@
+package com.artemis.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.artemis.Component;
+
+/**
+ * Primitive component storage that keeps the fields in a direct
+ * ByteBuffer, outside of the garbage collected heap.
+ *
+ * Every entity id has a fixed size record: the float fields followed by
+ * the int fields, 4 bytes each, in the order of the ComponentLayout. The
+ * garbage collector neither has to trace the components nor copy them,
+ * which matters once there are millions of them.
+ *
+ * Growing allocates a new buffer and copies the records. The old buffer
+ * is released when it is collected, so the initial capacity should cover
+ * the expected number of entities.
+ *
+ * @param <T> Type of component stored.
+ */
+public class DirectComponentStorage<T extends Component> extends PrimitiveComponentStorage<T> {
+
+    protected static final int FIELD_SIZE = 4;
+
+    /**
+     * Size of the record of an entity in bytes.
+     */
+    protected final int stride;
+    protected final int intOffset;
+
+    protected ByteBuffer buffer;
+    protected int capacity;
+
+    /**
+     * @param type Component class, its layout is read through reflection.
+     */
+    public DirectComponentStorage(Class<T> type) {
+        this(type, 1024);
+    }
+
+    /**
+     * @param type Component class, its layout is read through reflection.
+     * @param capacity Initial number of entity ids the buffer holds.
+     */
+    public DirectComponentStorage(Class<T> type, int capacity) {
+        super(type);
+        intOffset = layout.getFloatCount() * FIELD_SIZE;
+        stride = intOffset + layout.getIntCount() * FIELD_SIZE;
+        this.capacity = capacity;
+        buffer = allocate(capacity);
+    }
+
+    protected ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * stride).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * @return buffer holding the records, only valid until the storage grows.
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return size of the record of an entity in bytes.
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    @Override
+    public float getFloat(int entityId, int field) {
+        return buffer.getFloat(entityId * stride + field * FIELD_SIZE);
+    }
+
+    @Override
+    public void setFloat(int entityId, int field, float value) {
+        buffer.putFloat(entityId * stride + field * FIELD_SIZE, value);
+    }
+
+    @Override
+    public int getInt(int entityId, int field) {
+        return buffer.getInt(entityId * stride + intOffset + field * FIELD_SIZE);
+    }
+
+    @Override
+    public void setInt(int entityId, int field, int value) {
+        buffer.putInt(entityId * stride + intOffset + field * FIELD_SIZE, value);
+    }
+
+    @Override
+    protected void grow(int entityId) {
+        if (entityId < capacity) {
+            return;
+        }
+        int newCapacity = Math.max(entityId + 1, capacity * 2);
+        ByteBuffer newBuffer = allocate(newCapacity);
+        buffer.clear();
+        newBuffer.put(buffer);
+        newBuffer.clear();
+        buffer = newBuffer;
+        capacity = newCapacity;
+    }
+}
@@ -0,0 +1,107 @@
+package com.artemis.utils;
+
+import com.artemis.Entity;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A set of entities backed by a bitset of their ids. Adding, removing
+ * and checking an entity is O(1) and does not hash, and the entities
+ * are walked in the order of their ids:
+ * 
+ * for (int id = set.nextId(0); id &gt;= 0; id = set.nextId(id + 1)) {
+ *     Entity e = set.get(id);
+ * }
+ * 
+ * A dense queue of the added ids is kept as well, so that clearing
+ * the set only touches the ids that were added.
+ */
+public class EntityIdSet {
+
+    /**
+     * Number of entities in the set.
+     */
+    public int size;
+
+    protected Bits ids;
+    protected SafeArray<Entity> entities;
+    protected IntArray queue;
+
+    public EntityIdSet() {
+        ids = new Bits();
+        entities = new SafeArray<Entity>();
+        queue = new IntArray();
+    }
+
+    /**
+     * Adds the entity to the set.
+     * 
+     * @param e Entity to add.
+     * @return true if the entity was not in the set yet.
+     */
+    public boolean add(Entity e) {
+        if (ids.getAndSet(e.id)) {
+            return false;
+        }
+        entities.set(e.id, e);
+        queue.add(e.id);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the entity from the set.
+     * 
+     * @param e Entity to remove.
+     * @return true if the entity was in the set.
+     */
+    public boolean remove(Entity e) {
+        if (!ids.getAndClear(e.id)) {
+            return false;
+        }
+        entities.set(e.id, null);
+        if (--size == 0) {
+            queue.clear();
+        }
+        return true;
+    }
+
+    /**
+     * @param e Entity to check.
+     * @return Returns whether the entity is in the set.
+     */
+    public boolean contains(Entity e) {
+        return ids.get(e.id);
+    }
+
+    /**
+     * Returns the id of the next entity in the set.
+     * 
+     * @param fromId Id to start searching from (inclusive).
+     * @return Id of the next entity in the set, or -1 if there is none.
+     */
+    public int nextId(int fromId) {
+        return ids.nextSetBit(fromId);
+    }
+
+    /**
+     * @param id Id of the entity.
+     * @return Returns the entity with the specified id if it is in the set, or null.
+     */
+    public Entity get(int id) {
+        return entities.get(id);
+    }
+
+    /**
+     * Removes all the entities from the set.
+     */
+    public void clear() {
+        for (int i = 0; i < queue.size; i++) {
+            int id = queue.items[i];
+            ids.clear(id);
+            entities.set(id, null);
+        }
+        queue.clear();
+        size = 0;
+    }
+}
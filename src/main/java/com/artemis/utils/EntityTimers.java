@@ -0,0 +1,63 @@
+package com.artemis.utils;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Timers keyed by id, usually entity ids, that are advanced together.
+ *
+ * A timer fires once the time it was updated with reaches its delay, at
+ * most once per update. A repeating timer carries over the time exceeding
+ * its delay, a timer that doesn't repeat stops after firing.
+ *
+ * TimingWheel only touches the timers that are due, TimerArray updates
+ * all timers in a single pass over primitive arrays.
+ */
+public interface EntityTimers {
+
+    /**
+     * Starts or restarts the timer of an id.
+     *
+     * @param id Id of the timer.
+     * @param delay Time until the timer fires.
+     * @param period Time between repeated firings, 0 if the timer doesn't repeat.
+     */
+    void start(int id, float delay, float period);
+
+    /**
+     * Stops the timer of an id.
+     *
+     * @param id Id of the timer.
+     * @return false if the timer wasn't running.
+     */
+    boolean cancel(int id);
+
+    /**
+     * @param id Id of the timer.
+     * @return whether the timer of the id is running.
+     */
+    boolean isRunning(int id);
+
+    /**
+     * @param id Id of the timer.
+     * @return time until the timer fires, 0 if it isn't running.
+     */
+    float getRemaining(int id);
+
+    /**
+     * Advances time and collects the ids of the timers that fired.
+     *
+     * @param delta Time elapsed since the last update.
+     * @param fired Array the ids of the fired timers are added to.
+     */
+    void update(float delta, IntArray fired);
+
+    /**
+     * @return number of running timers.
+     */
+    int size();
+
+    /**
+     * Stops all timers.
+     */
+    void clear();
+}
@@ -28,6 +28,24 @@ public class IdentifierPool implements Disposable {
         return nextAvailableId++;
     }
 
+    /**
+     * Checks out a block of ids at once. Recycled ids are used first,
+     * the rest is reserved as a contiguous range of new ids.
+     * 
+     * @param count Number of ids to check out.
+     * @param out Array the ids are added to.
+     */
+    public void checkOut(int count, IntArray out) {
+        out.ensureCapacity(count);
+        int recycled = Math.min(count, ids.size);
+        for (int i = 0; i < recycled; i++) {
+            out.add(ids.pop());
+        }
+        for (int i = recycled; i < count; i++) {
+            out.add(nextAvailableId++);
+        }
+    }
+
     /**
      * Recycles the specified id.
      * @param id Id to return back to the pool.
@@ -0,0 +1,220 @@
+package com.artemis.utils;
+
+/**
+ * Binary min-heap of ids with a priority each, e.g. entity ids keyed by
+ * the time they are due.
+ *
+ * The heap position of every id is kept in an array indexed by id, so
+ * the priority of a queued id can be changed or the id removed in
+ * O(log n) without searching the heap.
+ */
+public class IndexedPriorityQueue {
+
+    /**
+     * Heap of ids, the first size entries are used.
+     */
+    protected int[] heap;
+
+    /**
+     * Heap position of every id, or -1 if the id isn't queued.
+     */
+    protected int[] positions;
+    protected double[] priorities;
+
+    protected int size;
+
+    public IndexedPriorityQueue() {
+        this(16);
+    }
+
+    /**
+     * @param capacity Initial number of ids the queue can hold without growing.
+     */
+    public IndexedPriorityQueue(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        priorities = new double[capacity];
+        for (int i = 0; i < capacity; i++) {
+            positions[i] = -1;
+        }
+    }
+
+    /**
+     * Queues an id or changes its priority if it's already queued.
+     *
+     * @param id Id to queue.
+     * @param priority Priority of the id, lower values come first.
+     */
+    public void put(int id, double priority) {
+        ensureCapacity(id);
+        int position = positions[id];
+        if (position < 0) {
+            if (size == heap.length) {
+                heap = copyOf(heap, Math.max(8, size * 2));
+            }
+            priorities[id] = priority;
+            heap[size] = id;
+            positions[id] = size;
+            siftUp(size++);
+        } else {
+            double old = priorities[id];
+            priorities[id] = priority;
+            if (priority < old) {
+                siftUp(position);
+            } else {
+                siftDown(position);
+            }
+        }
+    }
+
+    /**
+     * Removes an id from the queue.
+     *
+     * @param id Id to remove.
+     * @return false if the id wasn't queued.
+     */
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        int position = positions[id];
+        positions[id] = -1;
+        size--;
+        if (position < size) {
+            int last = heap[size];
+            heap[position] = last;
+            positions[last] = position;
+            siftUp(position);
+            siftDown(positions[last]);
+        }
+        return true;
+    }
+
+    /**
+     * @param id Id to check.
+     * @return whether the id is queued.
+     */
+    public boolean contains(int id) {
+        return id < positions.length && positions[id] >= 0;
+    }
+
+    /**
+     * @param id Queued id.
+     * @return priority of the id.
+     */
+    public double getPriority(int id) {
+        return priorities[id];
+    }
+
+    /**
+     * @return id with the lowest priority, or -1 if the queue is empty.
+     */
+    public int peek() {
+        return size > 0 ? heap[0] : -1;
+    }
+
+    /**
+     * @return lowest priority in the queue, or Double.POSITIVE_INFINITY
+     * if the queue is empty.
+     */
+    public double peekPriority() {
+        return size > 0 ? priorities[heap[0]] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Removes the id with the lowest priority.
+     *
+     * @return the removed id, or -1 if the queue is empty.
+     */
+    public int poll() {
+        int id = peek();
+        if (id >= 0) {
+            remove(id);
+        }
+        return id;
+    }
+
+    /**
+     * @return number of queued ids.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return whether the queue is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all ids.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    protected void siftUp(int position) {
+        int id = heap[position];
+        double priority = priorities[id];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentId = heap[parent];
+            if (priorities[parentId] <= priority) {
+                break;
+            }
+            heap[position] = parentId;
+            positions[parentId] = position;
+            position = parent;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    protected void siftDown(int position) {
+        int id = heap[position];
+        double priority = priorities[id];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && priorities[heap[right]] < priorities[heap[child]]) {
+                child = right;
+            }
+            int childId = heap[child];
+            if (priority <= priorities[childId]) {
+                break;
+            }
+            heap[position] = childId;
+            positions[childId] = position;
+            position = child;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    protected void ensureCapacity(int id) {
+        if (id < positions.length) {
+            return;
+        }
+        int capacity = Math.max(id + 1, positions.length * 2);
+        int oldLength = positions.length;
+        positions = copyOf(positions, capacity);
+        for (int i = oldLength; i < capacity; i++) {
+            positions[i] = -1;
+        }
+        double[] newPriorities = new double[capacity];
+        System.arraycopy(priorities, 0, newPriorities, 0, priorities.length);
+        priorities = newPriorities;
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
@@ -0,0 +1,193 @@
+package com.artemis.utils;
+
+import com.artemis.Component;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Sparse set component storage. Components are packed into a dense
+ * array, and a paged sparse index maps entity ids to slots in that array.
+ * 
+ * Memory use scales with the number of components rather than with the
+ * largest entity id, and iterating over all the components of a type
+ * walks a contiguous array:
+ * 
+ * for (int i = 0; i &lt; storage.size; i++) {
+ *     process(storage.entityIds[i], storage.getAt(i));
+ * }
+ * 
+ * Removal moves the last component into the freed slot, so the order
+ * of the packed array is not stable.
+ * 
+ * @param <T> Type of component stored.
+ */
+public class PackedComponentStorage<T extends Component> extends ComponentStorage<T> {
+
+    protected static final int PAGE_BITS = 12;
+    protected static final int PAGE_SIZE = 1 << PAGE_BITS;
+    protected static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /**
+     * Packed components, valid in the range [0, size).
+     */
+    public Component[] items;
+
+    /**
+     * Id of the entity that owns the component in the same slot of items.
+     */
+    public int[] entityIds;
+
+    /**
+     * Number of components stored.
+     */
+    public int size;
+
+    /**
+     * Pages of entity id to slot mappings. Pages are only allocated
+     * once an entity id within their range gets a component.
+     */
+    protected int[][] slots;
+
+    public PackedComponentStorage() {
+        this(16);
+    }
+
+    /**
+     * Creates a storage with a specified initial capacity.
+     * 
+     * @param capacity initial number of components the storage can hold.
+     */
+    public PackedComponentStorage(int capacity) {
+        capacity = Math.max(1, capacity);
+        items = new Component[capacity];
+        entityIds = new int[capacity];
+        slots = new int[1][];
+    }
+
+    /**
+     * Returns the slot of the entity's component in the packed arrays.
+     * 
+     * @param entityId Id of the entity.
+     * @return slot index or -1 if the entity does not have a component.
+     */
+    public int slotOf(int entityId) {
+        int page = entityId >>> PAGE_BITS;
+        if (page < slots.length) {
+            int[] slotPage = slots[page];
+            if (slotPage != null) {
+                int slot = slotPage[entityId & PAGE_MASK];
+                if (slot < size && entityIds[slot] == entityId) {
+                    return slot;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the component in the specified slot of the packed array.
+     * 
+     * @param slot Slot in the range [0, size).
+     * @return Component in the slot.
+     */
+    @SuppressWarnings("unchecked")
+    public T getAt(int slot) {
+        return (T) items[slot];
+    }
+
+    @Override
+    public T get(int entityId) {
+        int slot = slotOf(entityId);
+        return slot >= 0 ? getAt(slot) : null;
+    }
+
+    @Override
+    public T set(int entityId, T component) {
+        if (component == null) {
+            return remove(entityId);
+        }
+        int slot = slotOf(entityId);
+        if (slot >= 0) {
+            T current = getAt(slot);
+            items[slot] = component;
+            return current;
+        }
+
+        if (size == items.length) {
+            resize(size * 2);
+        }
+        slot = size++;
+        items[slot] = component;
+        entityIds[slot] = entityId;
+        page(entityId)[entityId & PAGE_MASK] = slot;
+        return null;
+    }
+
+    @Override
+    public T remove(int entityId) {
+        int slot = slotOf(entityId);
+        if (slot < 0) {
+            return null;
+        }
+        T removed = getAt(slot);
+        int last = --size;
+        if (slot != last) {
+            int movedId = entityIds[last];
+            items[slot] = items[last];
+            entityIds[slot] = movedId;
+            slots[movedId >>> PAGE_BITS][movedId & PAGE_MASK] = slot;
+        }
+        items[last] = null;
+        return removed;
+    }
+
+    @Override
+    public void ensureCapacity(int maxEntityId, int count) {
+        if (size + count > items.length) {
+            resize(size + count);
+        }
+        page(maxEntityId);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void removeAll(Array<? super T> removed) {
+        for (int i = 0; i < size; i++) {
+            removed.add(getAt(i));
+            items[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the page of the sparse index covering the entity id,
+     * allocating it if necessary.
+     */
+    protected int[] page(int entityId) {
+        int page = entityId >>> PAGE_BITS;
+        if (page >= slots.length) {
+            int[][] newSlots = new int[Math.max(page + 1, slots.length * 2)][];
+            System.arraycopy(slots, 0, newSlots, 0, slots.length);
+            slots = newSlots;
+        }
+        int[] slotPage = slots[page];
+        if (slotPage == null) {
+            slotPage = new int[PAGE_SIZE];
+            slots[page] = slotPage;
+        }
+        return slotPage;
+    }
+
+    protected void resize(int capacity) {
+        Component[] newItems = new Component[capacity];
+        System.arraycopy(items, 0, newItems, 0, size);
+        items = newItems;
+
+        int[] newEntityIds = new int[capacity];
+        System.arraycopy(entityIds, 0, newEntityIds, 0, size);
+        entityIds = newEntityIds;
+    }
+}
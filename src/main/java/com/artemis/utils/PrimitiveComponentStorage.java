@@ -0,0 +1,127 @@
+package com.artemis.utils;
+
+import com.artemis.Component;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+
+/**
+ * Base of the storages that keep the float and int fields of a component
+ * type (see ComponentLayout) as primitives keyed by entity id, instead of
+ * keeping component instances.
+ *
+ * Adding a component copies its fields into the storage. The component
+ * instance isn't kept or freed, it stays with the caller. get() returns
+ * null, the data is read and written through a PrimitiveComponentMapper. Fields
+ * that are neither float nor int are not stored.
+ *
+ * @param <T> Type of component stored.
+ */
+public abstract class PrimitiveComponentStorage<T extends Component> extends ComponentStorage<T> {
+
+    protected final ComponentLayout layout;
+
+    /**
+     * Entity ids that have a component.
+     */
+    protected final Bits present;
+    protected int size;
+
+    /**
+     * @param type Component class, its layout is read through reflection.
+     */
+    public PrimitiveComponentStorage(Class<T> type) {
+        this.layout = new ComponentLayout(type);
+        this.present = new Bits();
+    }
+
+    /**
+     * @return the fields stored for every entity.
+     */
+    public ComponentLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @param entityId Id of the entity.
+     * @return whether the entity has a component in this storage.
+     */
+    public boolean has(int entityId) {
+        return present.get(entityId);
+    }
+
+    public abstract float getFloat(int entityId, int field);
+
+    public abstract void setFloat(int entityId, int field, float value);
+
+    public abstract int getInt(int entityId, int field);
+
+    public abstract void setInt(int entityId, int field, int value);
+
+    /**
+     * Grows the storage so it can hold the fields of an entity id.
+     *
+     * @param entityId Highest entity id to store.
+     */
+    protected abstract void grow(int entityId);
+
+    /**
+     * Always returns null, the component data is only available through
+     * the primitive accessors.
+     */
+    @Override
+    public T get(int entityId) {
+        return null;
+    }
+
+    /**
+     * Copies the fields of the component. The component isn't kept.
+     *
+     * @return always null.
+     */
+    @Override
+    public T set(int entityId, T component) {
+        if (component == null) {
+            return remove(entityId);
+        }
+        grow(entityId);
+        for (int i = 0; i < layout.getFloatCount(); i++) {
+            setFloat(entityId, i, layout.readFloat(i, component));
+        }
+        for (int i = 0; i < layout.getIntCount(); i++) {
+            setInt(entityId, i, layout.readInt(i, component));
+        }
+        if (!present.getAndSet(entityId)) {
+            size++;
+        }
+        return null;
+    }
+
+    @Override
+    public T remove(int entityId) {
+        if (present.getAndClear(entityId)) {
+            size--;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean storesInstances() {
+        return false;
+    }
+
+    @Override
+    public void ensureCapacity(int maxEntityId, int count) {
+        grow(maxEntityId);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void removeAll(Array<? super T> removed) {
+        present.clear();
+        size = 0;
+    }
+}
@@ -0,0 +1,165 @@
+package com.artemis.utils;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Timers keyed by id, stored as a structure of primitive arrays.
+ *
+ * The accumulated times, delays and periods of the running timers are
+ * packed at the front of parallel float arrays, so an update is a single
+ * pass over contiguous floats without any objects involved. Stopping a
+ * timer moves the last running timer into its place.
+ *
+ * Use it instead of TimingWheel when most timers are short and fire
+ * every few updates anyway.
+ */
+public class TimerArray implements EntityTimers {
+
+    protected float[] acc;
+    protected float[] delays;
+    protected float[] periods;
+
+    /**
+     * Id of the timer at every packed index.
+     */
+    protected int[] ids;
+
+    /**
+     * Packed index of every id, or -1 if its timer isn't running.
+     */
+    protected int[] indices;
+
+    protected int size;
+
+    public TimerArray() {
+        this(16);
+    }
+
+    /**
+     * @param capacity Initial number of timers the array can hold without growing.
+     */
+    public TimerArray(int capacity) {
+        acc = new float[capacity];
+        delays = new float[capacity];
+        periods = new float[capacity];
+        ids = new int[capacity];
+        indices = new int[0];
+    }
+
+    @Override
+    public void start(int id, float delay, float period) {
+        ensureIdCapacity(id);
+        int index = indices[id];
+        if (index < 0) {
+            if (size == acc.length) {
+                int capacity = Math.max(8, size * 2);
+                acc = copyOf(acc, capacity);
+                delays = copyOf(delays, capacity);
+                periods = copyOf(periods, capacity);
+                ids = copyOf(ids, capacity);
+            }
+            index = size++;
+            ids[index] = id;
+            indices[id] = index;
+        }
+        acc[index] = 0;
+        delays[index] = delay;
+        periods[index] = period;
+    }
+
+    @Override
+    public boolean cancel(int id) {
+        if (!isRunning(id)) {
+            return false;
+        }
+        remove(id);
+        return true;
+    }
+
+    @Override
+    public boolean isRunning(int id) {
+        return id < indices.length && indices[id] >= 0;
+    }
+
+    @Override
+    public float getRemaining(int id) {
+        if (!isRunning(id)) {
+            return 0;
+        }
+        int index = indices[id];
+        return delays[index] - acc[index];
+    }
+
+    @Override
+    public void update(float delta, IntArray fired) {
+        int start = fired.size;
+        float[] acc = this.acc;
+        float[] delays = this.delays;
+        for (int i = 0, s = size; s > i; i++) {
+            acc[i] += delta;
+            if (acc[i] >= delays[i]) {
+                fired.add(ids[i]);
+            }
+        }
+
+        for (int i = start; i < fired.size; i++) {
+            int id = fired.get(i);
+            int index = indices[id];
+            if (periods[index] > 0) {
+                acc[index] -= delays[index];
+                delays[index] = periods[index];
+            } else {
+                remove(id);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            indices[ids[i]] = -1;
+        }
+        size = 0;
+    }
+
+    protected void remove(int id) {
+        int index = indices[id];
+        int last = --size;
+        if (index < last) {
+            acc[index] = acc[last];
+            delays[index] = delays[last];
+            periods[index] = periods[last];
+            ids[index] = ids[last];
+            indices[ids[index]] = index;
+        }
+        indices[id] = -1;
+    }
+
+    protected void ensureIdCapacity(int id) {
+        if (id < indices.length) {
+            return;
+        }
+        int oldLength = indices.length;
+        indices = copyOf(indices, Math.max(id + 1, oldLength * 2));
+        for (int i = oldLength; i < indices.length; i++) {
+            indices[i] = -1;
+        }
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
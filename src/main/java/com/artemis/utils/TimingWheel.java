@@ -0,0 +1,326 @@
+package com.artemis.utils;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Hierarchical timing wheel keeping one timer per id, e.g. per entity id.
+ *
+ * Time is divided into ticks. Level 0 has a slot for each of the next 64
+ * ticks, every higher level has 64 slots covering 64 times the range of
+ * the level below. Timers further away than all levels wait in an overflow
+ * list. When time reaches a slot of a higher level, its timers are moved
+ * down to the level below. An update therefore only touches the timers
+ * that are due, plus the timers that get moved down, instead of every
+ * running timer. A bit mask per level tracks the slots with timers, so
+ * updates jump over empty ticks.
+ *
+ * The slot lists are linked through arrays indexed by id, so scheduling
+ * doesn't allocate once the arrays have grown to the largest id.
+ */
+public class TimingWheel implements EntityTimers {
+
+    protected static final int SLOT_BITS = 6;
+    protected static final int SLOTS = 1 << SLOT_BITS;
+    protected static final int SLOT_MASK = SLOTS - 1;
+    protected static final int LEVELS = 6;
+    protected static final int OVERFLOW = LEVELS * SLOTS;
+
+    protected final double tickSize;
+
+    /**
+     * First entry of every slot list, or -1. The last list is the overflow.
+     */
+    protected final int[] heads;
+
+    /**
+     * Bit per slot of every level, set if the slot has timers.
+     */
+    protected final long[] occupied;
+
+    protected int[] next;
+    protected int[] prev;
+
+    /**
+     * Slot each id is linked into, or -1 if its timer isn't running.
+     */
+    protected int[] slots;
+    protected double[] deadlines;
+    protected float[] periods;
+
+    protected double time;
+    protected long currentTick;
+    protected int size;
+
+    /**
+     * Create a timing wheel.
+     *
+     * @param tickSize Time covered by a level 0 slot. Timers don't fire
+     * late because of it, it only determines how timers are spread.
+     */
+    public TimingWheel(float tickSize) {
+        if (tickSize <= 0) {
+            throw new IllegalArgumentException("Tick size must be positive: " + tickSize);
+        }
+        this.tickSize = tickSize;
+        heads = new int[OVERFLOW + 1];
+        for (int i = 0; i < heads.length; i++) {
+            heads[i] = -1;
+        }
+        occupied = new long[LEVELS];
+        next = new int[0];
+        prev = new int[0];
+        slots = new int[0];
+        deadlines = new double[0];
+        periods = new float[0];
+    }
+
+    @Override
+    public void start(int id, float delay, float period) {
+        ensureCapacity(id);
+        if (slots[id] >= 0) {
+            unlink(id);
+        } else {
+            size++;
+        }
+        deadlines[id] = time + delay;
+        periods[id] = period;
+        insert(id);
+    }
+
+    @Override
+    public boolean cancel(int id) {
+        if (!isRunning(id)) {
+            return false;
+        }
+        unlink(id);
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean isRunning(int id) {
+        return id < slots.length && slots[id] >= 0;
+    }
+
+    @Override
+    public float getRemaining(int id) {
+        return isRunning(id) ? (float) (deadlines[id] - time) : 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return total time the wheel has been updated with.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    @Override
+    public void update(float delta, IntArray fired) {
+        int start = fired.size;
+        time += delta;
+
+        long targetTick = tickOf(time);
+        while (true) {
+            expire(slotOf(0, currentTick), fired);
+            if (currentTick >= targetTick) {
+                break;
+            }
+            // jump over the ticks without timers
+            currentTick = Math.min(nextOccupiedTick(), targetTick);
+            cascade();
+        }
+
+        // reschedule after expiring, so a timer fires at most once per update
+        for (int i = start; i < fired.size; i++) {
+            int id = fired.get(i);
+            if (periods[id] > 0) {
+                deadlines[id] += periods[id];
+                insert(id);
+            } else {
+                slots[id] = -1;
+                size--;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < heads.length; i++) {
+            heads[i] = -1;
+        }
+        for (int i = 0; i < occupied.length; i++) {
+            occupied[i] = 0;
+        }
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Unlinks the due timers of a slot and adds them to fired. Timers
+     * that aren't due yet are put back in the wheel.
+     */
+    protected void expire(int slot, IntArray fired) {
+        int id = detach(slot);
+        while (id >= 0) {
+            int nextId = next[id];
+            if (deadlines[id] <= time) {
+                fired.add(id);
+            } else {
+                insert(id);
+            }
+            id = nextId;
+        }
+    }
+
+    /**
+     * @return the next tick after the current one that has timers in its
+     * level 0 slot or starts a higher level slot with timers.
+     */
+    protected long nextOccupiedTick() {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            int digit = (int) ((currentTick >>> shift) & SLOT_MASK);
+            long later = digit == SLOT_MASK ? 0 : occupied[level] & (-1L << (digit + 1));
+            if (later != 0) {
+                long block = (currentTick >>> (shift + SLOT_BITS)) << (shift + SLOT_BITS);
+                return block + ((long) Long.numberOfTrailingZeros(later) << shift);
+            }
+        }
+        if (heads[OVERFLOW] >= 0) {
+            int shift = SLOT_BITS * LEVELS;
+            return ((currentTick >>> shift) + 1) << shift;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Moves the timers of the higher level slots that start at the
+     * current tick down to the lower levels.
+     */
+    protected void cascade() {
+        if ((currentTick & SLOT_MASK) != 0) {
+            return;
+        }
+        int top = 1;
+        while (top < LEVELS && ((currentTick >>> (SLOT_BITS * top)) & SLOT_MASK) == 0) {
+            top++;
+        }
+        if (top == LEVELS) {
+            reinsert(OVERFLOW);
+            top = LEVELS - 1;
+        }
+        for (int level = top; level >= 1; level--) {
+            reinsert(slotOf(level, currentTick));
+        }
+    }
+
+    protected void reinsert(int slot) {
+        int id = detach(slot);
+        while (id >= 0) {
+            int nextId = next[id];
+            insert(id);
+            id = nextId;
+        }
+    }
+
+    /**
+     * Links the timer into the slot matching its deadline.
+     */
+    protected void insert(int id) {
+        long tick = Math.max(tickOf(deadlines[id]), currentTick);
+        int slot = OVERFLOW;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((tick >>> shift) == (currentTick >>> shift)) {
+                slot = slotOf(level, tick);
+                break;
+            }
+        }
+        link(id, slot);
+    }
+
+    /**
+     * Empties a slot.
+     *
+     * @return the first timer of the slot's former list, or -1.
+     */
+    protected int detach(int slot) {
+        int id = heads[slot];
+        heads[slot] = -1;
+        if (slot < OVERFLOW) {
+            occupied[slot >>> SLOT_BITS] &= ~(1L << (slot & SLOT_MASK));
+        }
+        return id;
+    }
+
+    protected void link(int id, int slot) {
+        int head = heads[slot];
+        next[id] = head;
+        prev[id] = -1;
+        if (head >= 0) {
+            prev[head] = id;
+        }
+        heads[slot] = id;
+        slots[id] = slot;
+        if (slot < OVERFLOW) {
+            occupied[slot >>> SLOT_BITS] |= 1L << (slot & SLOT_MASK);
+        }
+    }
+
+    protected void unlink(int id) {
+        int slot = slots[id];
+        if (prev[id] >= 0) {
+            next[prev[id]] = next[id];
+        } else {
+            heads[slot] = next[id];
+            if (heads[slot] < 0 && slot < OVERFLOW) {
+                occupied[slot >>> SLOT_BITS] &= ~(1L << (slot & SLOT_MASK));
+            }
+        }
+        if (next[id] >= 0) {
+            prev[next[id]] = prev[id];
+        }
+        slots[id] = -1;
+    }
+
+    protected long tickOf(double t) {
+        return (long) Math.floor(t / tickSize);
+    }
+
+    protected static int slotOf(int level, long tick) {
+        return level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    protected void ensureCapacity(int id) {
+        if (id < slots.length) {
+            return;
+        }
+        int capacity = Math.max(id + 1, slots.length * 2);
+        next = copyOf(next, capacity);
+        prev = copyOf(prev, capacity);
+        int oldLength = slots.length;
+        slots = copyOf(slots, capacity);
+        for (int i = oldLength; i < capacity; i++) {
+            slots[i] = -1;
+        }
+        double[] newDeadlines = new double[capacity];
+        System.arraycopy(deadlines, 0, newDeadlines, 0, deadlines.length);
+        deadlines = newDeadlines;
+        float[] newPeriods = new float[capacity];
+        System.arraycopy(periods, 0, newPeriods, 0, periods.length);
+        periods = newPeriods;
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
@@ -0,0 +1,122 @@
+package com.artemis;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.systems.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+
+public class ArchetypeIndexTest {
+
+    static class ComponentA implements Component {
+        @Override
+        public void reset() {
+        }
+    }
+
+    static class ComponentB implements Component {
+        @Override
+        public void reset() {
+        }
+    }
+
+    static class SystemA extends EntitySystem {
+        @SuppressWarnings("unchecked")
+        public SystemA() {
+            super(Filter.allComponents(ComponentA.class));
+        }
+
+        @Override
+        protected void processEntities(Array<Entity> entities) {
+        }
+    }
+
+    static class SystemAB extends EntitySystem {
+        @SuppressWarnings("unchecked")
+        public SystemAB() {
+            super(Filter.allComponents(ComponentA.class, ComponentB.class));
+        }
+
+        @Override
+        protected void processEntities(Array<Entity> entities) {
+        }
+    }
+
+    static class SystemNotB extends EntitySystem {
+        @SuppressWarnings("unchecked")
+        public SystemNotB() {
+            super(Filter.allComponents(ComponentA.class).exclude(ComponentB.class));
+        }
+
+        @Override
+        protected void processEntities(Array<Entity> entities) {
+        }
+    }
+
+    @Test
+    public void testMembership() {
+        World world = new World();
+        SystemA systemA = world.setSystem(new SystemA());
+        SystemAB systemAB = world.setSystem(new SystemAB());
+        SystemNotB systemNotB = world.setSystem(new SystemNotB());
+        world.initialize();
+
+        Array<Entity> entities = new Array<Entity>();
+        for (int i = 0; i < 10; i++) {
+            Entity e = world.createEntity();
+            e.addComponent(world.createComponent(ComponentA.class));
+            if (i % 2 == 0) {
+                e.addComponent(world.createComponent(ComponentB.class));
+            }
+            e.addToWorld();
+            entities.add(e);
+        }
+        world.process();
+
+        Assert.assertEquals(2, world.archetypes.size());
+        Assert.assertEquals(10, systemA.getActives().size);
+        Assert.assertEquals(5, systemAB.getActives().size);
+        Assert.assertEquals(5, systemNotB.getActives().size);
+
+        Entity e = entities.get(0);
+        e.removeComponent(ComponentB.class);
+        world.process();
+
+        Assert.assertEquals(2, world.archetypes.size());
+        Assert.assertEquals(10, systemA.getActives().size);
+        Assert.assertEquals(4, systemAB.getActives().size);
+        Assert.assertEquals(6, systemNotB.getActives().size);
+        Assert.assertTrue(e.getSystemBits().get(systemNotB.getSystemIndex()));
+        Assert.assertFalse(e.getSystemBits().get(systemAB.getSystemIndex()));
+
+        e.removeComponent(ComponentA.class);
+        world.process();
+
+        Assert.assertEquals(3, world.archetypes.size());
+        Assert.assertEquals(9, systemA.getActives().size);
+        Assert.assertEquals(5, systemNotB.getActives().size);
+        Assert.assertTrue(e.getSystemBits().isEmpty());
+    }
+
+    @Test
+    public void testSystemsChanged() {
+        World world = new World();
+        SystemA systemA = world.setSystem(new SystemA());
+        world.initialize();
+
+        Entity e = world.createEntity();
+        e.addComponent(world.createComponent(ComponentA.class));
+        e.addComponent(world.createComponent(ComponentB.class));
+        e.addToWorld();
+        world.process();
+
+        Assert.assertEquals(1, systemA.getActives().size);
+
+        SystemAB systemAB = world.setSystem(new SystemAB());
+        world.deleteSystem(systemA);
+        e.changedInWorld();
+        world.process();
+
+        Assert.assertEquals(1, systemAB.getActives().size);
+    }
+}
@@ -5,6 +5,7 @@ import junit.framework.Assert;
 import org.junit.Test;
 
 import com.artemis.systems.EntityProcessingSystem;
+import com.badlogic.gdx.utils.Array;
 
 public class EntityTest {
     static class ComponentA implements Component {
@@ -63,4 +64,36 @@ public class EntityTest {
         world.process();
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCreateEntities() {
+        World world = new World();
+        SystemA system = world.setSystem(new SystemA());
+        world.initialize();
+
+        Entity existing = world.createEntity();
+        existing.addComponent(world.createComponent(ComponentC.class));
+        existing.addToWorld();
+        world.process();
+
+        EntityTemplate template = new EntityTemplate(ComponentA.class, ComponentB.class);
+        Array<Entity> entities = new Array<Entity>();
+        entities.add(existing);
+        world.createEntities(template, 50, entities);
+
+        Assert.assertEquals(51, entities.size);
+        world.process();
+
+        Assert.assertEquals(50, system.getActives().size);
+        ComponentMapper<ComponentA> aMapper = world.getMapper(ComponentA.class);
+        for (int i = 1; i < entities.size; i++) {
+            Entity e = entities.get(i);
+            Assert.assertTrue(e.id != existing.id);
+            Assert.assertTrue(e.isActive());
+            Assert.assertNotNull(aMapper.get(e));
+            Assert.assertNotNull(e.getComponent(ComponentB.class));
+            Assert.assertNull(e.getComponent(ComponentC.class));
+        }
+    }
+
 }
@@ -0,0 +1,73 @@
+package com.artemis;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.managers.ComponentManager;
+import com.badlogic.gdx.utils.Bits;
+
+public class FilterMatcherTest {
+
+    static class ComponentA implements Component {
+        @Override
+        public void reset() {
+        }
+    }
+
+    static class ComponentB implements Component {
+        @Override
+        public void reset() {
+        }
+    }
+
+    static class ComponentC implements Component {
+        @Override
+        public void reset() {
+        }
+    }
+
+    static class ComponentD implements Component {
+        @Override
+        public void reset() {
+        }
+    }
+
+    private static Bits bits(Class<?>... types) {
+        Bits bits = new Bits();
+        for (Class<?> type : types) {
+            @SuppressWarnings("unchecked")
+            Class<? extends Component> componentType = (Class<? extends Component>) type;
+            bits.set(ComponentManager.getComponentClassIndex(componentType));
+        }
+        // widen the bits beyond the filter's words
+        bits.set(200);
+        bits.clear(200);
+        return bits;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testMatches() {
+        FilterMatcher matcher = new FilterMatcher(
+                Filter.allComponents(ComponentA.class).any(ComponentB.class, ComponentC.class).exclude(ComponentD.class));
+
+        Assert.assertFalse(matcher.isEmpty());
+        Assert.assertFalse(matcher.matches(bits()));
+        Assert.assertFalse(matcher.matches(bits(ComponentA.class)));
+        Assert.assertTrue(matcher.matches(bits(ComponentA.class, ComponentB.class)));
+        Assert.assertTrue(matcher.matches(bits(ComponentA.class, ComponentC.class)));
+        Assert.assertFalse(matcher.matches(bits(ComponentB.class, ComponentC.class)));
+        Assert.assertFalse(matcher.matches(bits(ComponentA.class, ComponentB.class, ComponentD.class)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFrozen() {
+        Filter filter = Filter.allComponents(ComponentA.class);
+        FilterMatcher matcher = new FilterMatcher(filter);
+        filter.all(ComponentB.class);
+
+        Assert.assertTrue(matcher.matches(bits(ComponentA.class)));
+        Assert.assertTrue(new FilterMatcher(Filter.getEmpty().exclude(ComponentA.class)).isEmpty());
+    }
+}
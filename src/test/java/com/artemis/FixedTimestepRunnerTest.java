@@ -0,0 +1,58 @@
+package com.artemis;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.systems.VoidEntitySystem;
+import com.badlogic.gdx.utils.FloatArray;
+
+public class FixedTimestepRunnerTest {
+
+    static class DeltaSystem extends VoidEntitySystem {
+        FloatArray deltas = new FloatArray();
+
+        @Override
+        protected void processSystem() {
+            deltas.add(world.getDelta());
+        }
+    }
+
+    @Test
+    public void testFixedSteps() {
+        World world = new World();
+        DeltaSystem simulation = world.setSystem(new DeltaSystem());
+        FixedTimestepRunner runner = new FixedTimestepRunner(world, 0.1f, 3);
+        DeltaSystem render = runner.setFrameSystem(new DeltaSystem());
+        world.initialize();
+
+        Assert.assertEquals(0, runner.update(0.05f));
+        Assert.assertEquals(0.5f, runner.getAlpha(), 0.0001f);
+
+        Assert.assertEquals(2, runner.update(0.17f));
+        Assert.assertEquals(0.2f, runner.getAlpha(), 0.0001f);
+
+        Assert.assertEquals(2, simulation.deltas.size);
+        for (int i = 0; i < simulation.deltas.size; i++) {
+            Assert.assertEquals(0.1f, simulation.deltas.get(i), 0);
+        }
+        Assert.assertEquals(2, render.deltas.size);
+        Assert.assertEquals(0.17f, render.deltas.get(1), 0);
+    }
+
+    @Test
+    public void testMaxSubSteps() {
+        World world = new World();
+        DeltaSystem simulation = world.setSystem(new DeltaSystem());
+        FixedTimestepRunner runner = new FixedTimestepRunner(world, 0.25f, 3);
+        world.initialize();
+
+        // a spike of 10 steps runs 3 of them and drops the rest
+        Assert.assertEquals(3, runner.update(2.625f));
+        Assert.assertEquals(3, simulation.deltas.size);
+        Assert.assertEquals(1.75, runner.getDroppedTime(), 0);
+        Assert.assertEquals(0.5f, runner.getAlpha(), 0);
+
+        Assert.assertEquals(1, runner.update(0.125f));
+        Assert.assertEquals(4, runner.getSteps());
+    }
+}
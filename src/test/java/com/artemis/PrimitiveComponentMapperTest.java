@@ -0,0 +1,174 @@
+package com.artemis;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.systems.EntityProcessingSystem;
+import com.artemis.utils.ArrayComponentStorage;
+import com.artemis.utils.ComponentView;
+import com.artemis.utils.DirectComponentStorage;
+
+public class PrimitiveComponentMapperTest {
+
+    static class Position implements Component {
+        float x;
+        float y;
+        int moves;
+        String name;
+
+        @Override
+        public void reset() {
+            x = 0;
+            y = 0;
+            moves = 0;
+            name = null;
+        }
+    }
+
+    static class MovementSystem extends EntityProcessingSystem {
+        PrimitiveComponentMapper<Position> positionMapper;
+        int x;
+        int moves;
+
+        @SuppressWarnings("unchecked")
+        public MovementSystem() {
+            super(Filter.allComponents(Position.class));
+        }
+
+        @Override
+        public void initialize() {
+            positionMapper = new PrimitiveComponentMapper<Position>(Position.class, world);
+            x = positionMapper.getFloatField("x");
+            moves = positionMapper.getIntField("moves");
+        }
+
+        @Override
+        protected void process(Entity e) {
+            positionMapper.setFloat(e, x, positionMapper.getFloat(e, x) + world.getDelta());
+            positionMapper.setInt(e, moves, positionMapper.getInt(e, moves) + 1);
+        }
+    }
+
+    @Test
+    public void testPrimitiveStorage() {
+        World world = new World();
+        ArrayComponentStorage<Position> storage = new ArrayComponentStorage<Position>(Position.class, 2);
+        world.getComponentManager().setStorage(Position.class, storage);
+        MovementSystem system = world.setSystem(new MovementSystem());
+        world.initialize();
+
+        Entity[] entities = new Entity[10];
+        for (int i = 0; i < entities.length; i++) {
+            Position position = world.createComponent(Position.class);
+            position.x = i;
+            position.y = -i;
+            position.name = "ignored";
+            Entity e = world.createEntity();
+            e.addComponent(position);
+            e.addToWorld();
+            entities[i] = e;
+
+            // the fields were copied, the instance is left alone
+            Assert.assertEquals(i, position.x, 0);
+        }
+
+        world.setDelta(0.5f);
+        world.process();
+        world.process();
+
+        PrimitiveComponentMapper<Position> mapper = system.positionMapper;
+        int y = mapper.getFloatField("y");
+        float[] xs = storage.getFloats(system.x);
+        for (int i = 0; i < entities.length; i++) {
+            Entity e = entities[i];
+            Assert.assertTrue(mapper.has(e));
+            Assert.assertEquals(i + 1f, mapper.getFloat(e, system.x), 0);
+            Assert.assertEquals(i + 1f, xs[e.id], 0);
+            Assert.assertEquals(-i, mapper.getFloat(e, y), 0);
+            Assert.assertEquals(2, mapper.getInt(e, system.moves));
+            Assert.assertEquals(0, e.getComponents().size);
+        }
+
+        // the instance based accessors can't see the component
+        try {
+            entities[0].getComponent(Position.class);
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            world.getMapper(Position.class);
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertEquals(entities.length, storage.size());
+
+        int deletedId = entities[3].id;
+        entities[3].deleteFromWorld();
+        world.process();
+        Assert.assertFalse(storage.has(deletedId));
+        Assert.assertEquals(entities.length - 1, storage.size());
+    }
+
+    @Test
+    public void testDirectStorageView() {
+        World world = new World();
+        DirectComponentStorage<Position> storage = new DirectComponentStorage<Position>(Position.class, 4);
+        world.getComponentManager().setStorage(Position.class, storage);
+        world.initialize();
+        Assert.assertEquals(12, storage.getStride());
+
+        PrimitiveComponentMapper<Position> mapper = new PrimitiveComponentMapper<Position>(Position.class, world);
+        int x = mapper.getFloatField("x");
+        int y = mapper.getFloatField("y");
+        int moves = mapper.getIntField("moves");
+
+        Entity[] entities = new Entity[20];
+        for (int i = 0; i < entities.length; i++) {
+            Position position = world.createComponent(Position.class);
+            position.x = i;
+            position.moves = i * 10;
+            Entity e = world.createEntity();
+            e.addComponent(position);
+            e.addToWorld();
+            entities[i] = e;
+        }
+        world.process();
+
+        for (int i = 0; i < entities.length; i++) {
+            ComponentView view = mapper.getView(entities[i]);
+            view.setFloat(y, view.getFloat(x) * 2);
+        }
+        for (int i = 0; i < entities.length; i++) {
+            ComponentView view = mapper.getView(entities[i]);
+            Assert.assertSame(view, mapper.getView(entities[0]).moveTo(entities[i].id));
+            Assert.assertEquals(i, view.getFloat(x), 0);
+            Assert.assertEquals(i * 2f, view.getFloat(y), 0);
+            Assert.assertEquals(i * 10, view.getInt(moves));
+        }
+    }
+
+    @Test
+    public void testPrototypeAddedToSeveralEntities() {
+        World world = new World();
+        world.getComponentManager().setStorage(Position.class,
+                new ArrayComponentStorage<Position>(Position.class, 2));
+        world.initialize();
+        PrimitiveComponentMapper<Position> mapper = new PrimitiveComponentMapper<Position>(Position.class, world);
+        int x = mapper.getFloatField("x");
+
+        Position prototype = new Position();
+        prototype.x = 7;
+        Entity a = world.createEntity().addComponent(prototype);
+        Entity b = world.createEntity().addComponent(prototype);
+        Assert.assertEquals(7, mapper.getFloat(a, x), 0);
+        Assert.assertEquals(7, mapper.getFloat(b, x), 0);
+        Assert.assertEquals(7, prototype.x, 0);
+
+        // the prototype never went into the pool
+        Position first = world.createComponent(Position.class);
+        Position second = world.createComponent(Position.class);
+        Assert.assertNotSame(prototype, first);
+        Assert.assertNotSame(prototype, second);
+        Assert.assertNotSame(first, second);
+    }
+}
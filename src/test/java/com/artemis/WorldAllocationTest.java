@@ -0,0 +1,177 @@
+package com.artemis;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.artemis.systems.EntityProcessingSystem;
+import com.artemis.systems.VoidEntitySystem;
+import com.artemis.systems.event.BasicEventDeliverySystem;
+import com.artemis.systems.event.EventProcessingSystem;
+import com.artemis.systems.event.SystemEvent;
+
+/**
+ * Makes sure that a steady-state frame, including entity churn,
+ * component changes and events, doesn't allocate any memory.
+ */
+public class WorldAllocationTest {
+
+    static final int ENTITIES = 1000;
+    static final int CHURN = 50;
+    static final int WARMUP_FRAMES = 2000;
+    static final int FRAMES = 5000;
+
+    static class Position implements Component {
+        float x, y;
+
+        @Override
+        public void reset() {
+            x = y = 0;
+        }
+    }
+
+    static class Velocity implements Component {
+        float x, y;
+
+        @Override
+        public void reset() {
+            x = y = 0;
+        }
+    }
+
+    static class Marker implements Component {
+        @Override
+        public void reset() {
+        }
+    }
+
+    static class HitEvent extends SystemEvent {
+        @Override
+        protected void resetForPooling() {
+        }
+    }
+
+    static class MovementSystem extends EntityProcessingSystem {
+        ComponentMapper<Position> pm;
+        ComponentMapper<Velocity> vm;
+
+        @SuppressWarnings("unchecked")
+        public MovementSystem() {
+            super(Filter.allComponents(Position.class, Velocity.class));
+        }
+
+        @Override
+        public void initialize() {
+            pm = world.getMapper(Position.class);
+            vm = world.getMapper(Velocity.class);
+        }
+
+        @Override
+        protected void process(Entity e) {
+            Position position = pm.get(e);
+            Velocity velocity = vm.get(e);
+            position.x += velocity.x * world.getDelta();
+            position.y += velocity.y * world.getDelta();
+        }
+    }
+
+    static class HitSystem extends EventProcessingSystem<HitEvent> {
+        int hits;
+
+        @SuppressWarnings("unchecked")
+        public HitSystem() {
+            super(Filter.allComponents(Marker.class), HitEvent.class);
+        }
+
+        @Override
+        protected void processEvent(Entity e, HitEvent event) {
+            hits++;
+        }
+    }
+
+    /**
+     * Replaces the oldest entities with new ones, toggles a component
+     * and posts an event every frame.
+     */
+    static class ChurnSystem extends VoidEntitySystem {
+        Entity[] entities = new Entity[ENTITIES];
+        int next;
+        int created;
+
+        @Override
+        public void initialize() {
+            for (int i = 0; i < ENTITIES; i++) {
+                entities[i] = create();
+            }
+        }
+
+        @Override
+        protected void processSystem() {
+            for (int i = 0; i < CHURN; i++) {
+                entities[next].deleteFromWorld();
+                entities[next] = create();
+                next = (next + 1) % ENTITIES;
+            }
+
+            Entity e = entities[(next + ENTITIES / 2) % ENTITIES];
+            if (e.getComponent(Marker.class) != null) {
+                e.removeComponent(Marker.class);
+            } else {
+                e.addComponent(world.createComponent(Marker.class));
+            }
+
+            world.postEvent(this, world.createEvent(HitEvent.class));
+        }
+
+        private Entity create() {
+            Entity e = world.createEntity();
+            e.addComponent(world.createComponent(Position.class));
+            Velocity velocity = world.createComponent(Velocity.class);
+            velocity.x = 1;
+            e.addComponent(velocity);
+            if (created++ % 4 == 0) {
+                e.addComponent(world.createComponent(Marker.class));
+            }
+            e.addToWorld();
+            return e;
+        }
+    }
+
+    @Test
+    public void testSteadyStateDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        World world = new World();
+        world.setEventDeliverySystem(new BasicEventDeliverySystem());
+        world.setSystem(new ChurnSystem());
+        world.setSystem(new MovementSystem());
+        HitSystem hitSystem = world.setSystem(new HitSystem());
+        world.initialize();
+        world.setDelta(0.016f);
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            world.process();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long start = threads.getThreadAllocatedBytes(threadId);
+        long overhead = threads.getThreadAllocatedBytes(threadId) - start;
+
+        start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < FRAMES; i++) {
+            world.process();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - start - overhead;
+
+        Assert.assertTrue(hitSystem.hits > 0);
+        Assert.assertEquals("Bytes allocated during " + FRAMES + " frames", 0, allocated);
+
+        world.dispose();
+    }
+}
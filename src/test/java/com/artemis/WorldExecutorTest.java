@@ -0,0 +1,113 @@
+package com.artemis;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.systems.EntityProcessingSystem;
+import com.artemis.systems.VoidEntitySystem;
+
+public class WorldExecutorTest {
+
+    static class Age implements Component {
+        int age;
+
+        @Override
+        public void reset() {
+            age = 0;
+        }
+    }
+
+    static class SpawnSystem extends VoidEntitySystem {
+        @Override
+        protected void processSystem() {
+            Entity e = world.createEntity();
+            e.addComponent(world.createComponent(Age.class));
+            e.addToWorld();
+        }
+    }
+
+    static class AgeSystem extends EntityProcessingSystem {
+        ComponentMapper<Age> ageMapper;
+        int deleted;
+
+        @SuppressWarnings("unchecked")
+        public AgeSystem() {
+            super(Filter.allComponents(Age.class));
+        }
+
+        @Override
+        public void initialize() {
+            ageMapper = world.getMapper(Age.class);
+        }
+
+        @Override
+        protected void process(Entity e) {
+            Age age = ageMapper.get(e);
+            if (++age.age == 3) {
+                e.deleteFromWorld();
+                deleted++;
+            }
+        }
+    }
+
+    @Test
+    public void testStepWorlds() {
+        int count = 24;
+        World[] worlds = new World[count];
+        FixedTimestepRunner[] runners = new FixedTimestepRunner[count];
+        WorldExecutor executor = new WorldExecutor(4);
+        try {
+            for (int i = 0; i < count; i++) {
+                World world = new World();
+                world.setSystem(new SpawnSystem());
+                world.setSystem(new AgeSystem());
+                world.initialize();
+                worlds[i] = world;
+                // half of the worlds tick twice as often
+                runners[i] = executor.register(world, i % 2 == 0 ? 0.5f : 0.25f);
+            }
+            Assert.assertEquals(count, executor.size());
+
+            for (int frame = 0; frame < 100; frame++) {
+                executor.update(0.5f);
+            }
+
+            for (int i = 0; i < count; i++) {
+                long steps = i % 2 == 0 ? 100 : 200;
+                Assert.assertEquals(steps, runners[i].getSteps());
+                // an entity is spawned per step, added in the next one and aged for three
+                Assert.assertEquals(steps - 3, worlds[i].getSystem(AgeSystem.class).deleted);
+            }
+
+            Assert.assertTrue(executor.unregister(worlds[0]));
+            Assert.assertFalse(executor.unregister(worlds[0]));
+            executor.update(0.5f);
+            Assert.assertEquals(100, runners[0].getSteps());
+        } finally {
+            executor.dispose();
+        }
+    }
+
+    @Test
+    public void testRejectsWorldRegisteredTwice() {
+        World world = new World();
+        world.initialize();
+        WorldExecutor executor = new WorldExecutor(2);
+        try {
+            executor.register(world, 0.5f);
+            try {
+                executor.register(new FixedTimestepRunner(world, 0.25f));
+                Assert.fail();
+            } catch (IllegalArgumentException expected) {
+            }
+            Assert.assertEquals(1, executor.size());
+
+            // it can be registered again once unregistered
+            Assert.assertTrue(executor.unregister(world));
+            executor.register(world, 0.25f);
+            Assert.assertEquals(1, executor.size());
+        } finally {
+            executor.dispose();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.artemis.Entity;
 import com.artemis.Filter;
 import com.artemis.World;
 import com.artemis.systems.EntityProcessingSystem;
+import com.artemis.utils.PackedComponentStorage;
 
 public class ComponentManagerTest {
 
@@ -133,5 +134,44 @@ public class ComponentManagerTest {
 
         // a should have been returned to the pool and a.x reset
         Assert.assertEquals(0, a.x);
+
+        world.dispose();
+        Assert.assertEquals(0, a1.x);
+    }
+
+    @Test
+    public void testPackedStorage() {
+        World world = new World();
+        PackedComponentStorage<ComponentA> storage = new PackedComponentStorage<ComponentA>();
+        world.getComponentManager().setStorage(ComponentA.class, storage);
+        world.setSystem(new SystemB());
+        world.initialize();
+
+        Entity e1 = world.createEntity();
+        ComponentA a1 = world.createComponent(ComponentA.class);
+        e1.addComponent(a1);
+        e1.addToWorld();
+
+        Entity e2 = world.createEntity();
+        ComponentA a2 = world.createComponent(ComponentA.class);
+        e2.addComponent(a2);
+        e2.addToWorld();
+
+        world.process();
+
+        ComponentMapper<ComponentA> mapper = world.getMapper(ComponentA.class);
+        Assert.assertSame(a1, mapper.get(e1));
+        Assert.assertSame(a2, mapper.get(e2));
+        Assert.assertEquals(2, storage.size());
+
+        e1.removeComponent(ComponentA.class);
+        world.process();
+
+        Assert.assertNull(mapper.getSafe(e1));
+        Assert.assertSame(a2, mapper.get(e2));
+        Assert.assertEquals(1, storage.size());
+
+        world.dispose();
+        Assert.assertEquals(0, storage.size());
     }
 }
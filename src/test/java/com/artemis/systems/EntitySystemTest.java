@@ -10,6 +10,7 @@ import com.artemis.Entity;
 import com.artemis.Filter;
 import com.artemis.World;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 
 public class EntitySystemTest {
 
@@ -48,6 +49,50 @@ public class EntitySystemTest {
         }
     }
 
+    static class InsertionSystem extends EntitySystem {
+
+        IntArray inserted = new IntArray();
+
+        @SuppressWarnings("unchecked")
+        public InsertionSystem() {
+            super(Filter.allComponents(ComponentA.class));
+        }
+
+        @Override
+        protected void inserted(Entity e) {
+            inserted.add(e.id);
+        }
+
+        @Override
+        protected void processEntities(Array<Entity> entities) {
+        }
+    }
+
+    @Test
+    public void testInsertionInIdOrder() {
+        World world = new World();
+        InsertionSystem system = world.setSystem(new InsertionSystem());
+        world.initialize();
+
+        Array<Entity> entities = new Array<Entity>();
+        for (int i = 0; i < 100; i++) {
+            Entity e = world.createEntity();
+            e.addComponent(world.createComponent(ComponentA.class));
+            entities.add(e);
+        }
+        entities.shuffle();
+        for (Entity e : entities) {
+            e.addToWorld();
+        }
+
+        world.process();
+
+        Assert.assertEquals(100, system.inserted.size);
+        for (int i = 1; i < system.inserted.size; i++) {
+            Assert.assertTrue(system.inserted.get(i - 1) < system.inserted.get(i));
+        }
+    }
+
     @Test
     public void testCheck() {
         World world = new World();
@@ -73,4 +118,111 @@ public class EntitySystemTest {
         Assert.assertEquals(1, system.numEntities);
     }
 
+    @Test
+    public void testRemoval() {
+        World world = new World();
+        InsertionSystem system = world.setSystem(new InsertionSystem());
+        world.initialize();
+
+        Array<Entity> entities = createEntities(world, 100);
+        for (int i = 0; i < entities.size; i += 3) {
+            entities.get(i).deleteFromWorld();
+        }
+        world.process();
+
+        Array<Entity> actives = system.getActives();
+        Assert.assertEquals(66, actives.size);
+        for (int i = 0; i < entities.size; i++) {
+            Assert.assertEquals(i % 3 != 0, actives.contains(entities.get(i), true));
+        }
+
+        for (int i = 0; i < entities.size; i++) {
+            if (i % 3 != 0) {
+                entities.get(i).deleteFromWorld();
+            }
+        }
+        world.process();
+
+        Assert.assertEquals(0, system.getActives().size);
+    }
+
+    @Test
+    public void testOrderedRemoval() {
+        World world = new World();
+        InsertionSystem system = world.setSystem(new InsertionSystem());
+        system.setOrdered(true);
+        world.initialize();
+
+        Array<Entity> entities = createEntities(world, 100);
+        for (int i = 0; i < entities.size; i += 3) {
+            entities.get(i).deleteFromWorld();
+        }
+        world.process();
+
+        Array<Entity> actives = system.getActives();
+        Assert.assertEquals(66, actives.size);
+        for (int i = 1; i < actives.size; i++) {
+            Assert.assertTrue(actives.get(i - 1).id < actives.get(i).id);
+        }
+
+        // Reinsert an entity, it goes to the end.
+        Entity e = entities.get(1);
+        e.removeComponent(ComponentA.class);
+        world.process();
+        e.addComponent(world.createComponent(ComponentA.class));
+        world.process();
+
+        Assert.assertEquals(66, actives.size);
+        Assert.assertSame(e, actives.peek());
+    }
+
+    private Array<Entity> createEntities(World world, int count) {
+        Array<Entity> entities = new Array<Entity>();
+        for (int i = 0; i < count; i++) {
+            Entity e = world.createEntity();
+            e.addComponent(world.createComponent(ComponentA.class));
+            e.addToWorld();
+            entities.add(e);
+        }
+        world.process();
+        return entities;
+    }
+
+
+    @Test
+    public void testSystemIndicesPerWorld() {
+        World world = new World();
+        TestSystem test = world.setSystem(new TestSystem());
+        InsertionSystem insertion = world.setSystem(new InsertionSystem());
+        world.initialize();
+        Assert.assertEquals(0, test.getSystemIndex());
+        Assert.assertEquals(1, insertion.getSystemIndex());
+
+        // indices don't depend on other worlds
+        World other = new World();
+        InsertionSystem otherInsertion = other.setSystem(new InsertionSystem());
+        Assert.assertEquals(0, otherInsertion.getSystemIndex());
+
+        Entity e = world.createEntity();
+        e.addComponent(world.createComponent(ComponentA.class));
+        e.addComponent(world.createComponent(ComponentB.class));
+        e.addToWorld();
+        world.process();
+        Assert.assertTrue(e.getSystemBits().get(0));
+        Assert.assertTrue(e.getSystemBits().get(1));
+
+        // a deleted system's index is reused and cleared from its entities
+        world.deleteSystem(test);
+        Assert.assertEquals(-1, test.getSystemIndex());
+        Assert.assertFalse(e.getSystemBits().get(0));
+
+        InsertionSystem replacement = world.setSystem(new InsertionSystem());
+        Assert.assertEquals(0, replacement.getSystemIndex());
+        Assert.assertEquals(0, replacement.getActives().size);
+
+        e.changedInWorld();
+        world.process();
+        Assert.assertEquals(1, replacement.getActives().size);
+        Assert.assertTrue(e.getSystemBits().get(0));
+    }
 }
@@ -0,0 +1,139 @@
+package com.artemis.systems;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.Component;
+import com.artemis.ComponentMapper;
+import com.artemis.Entity;
+import com.artemis.Filter;
+import com.artemis.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+public class ParallelEntityProcessingSystemTest {
+
+    private static final int ENTITY_COUNT = 10000;
+
+    static class ComponentA implements Component {
+        int count;
+
+        @Override
+        public void reset() {
+            count = 0;
+        }
+    }
+
+    static class CountingSystem extends ParallelEntityProcessingSystem {
+        ComponentMapper<ComponentA> aMapper;
+        int total;
+        int joinedCount;
+
+        @SuppressWarnings("unchecked")
+        public CountingSystem(ExecutorService executor) {
+            super(Filter.allComponents(ComponentA.class), 64, executor);
+        }
+
+        @Override
+        public void initialize() {
+            aMapper = world.getMapper(ComponentA.class);
+        }
+
+        @Override
+        protected void process(Entity e) {
+            aMapper.get(e).count++;
+        }
+
+        @Override
+        protected void joined() {
+            joinedCount++;
+            total = 0;
+            for (Entity e : actives) {
+                total += aMapper.get(e).count;
+            }
+        }
+    }
+
+    static class ChunkRecordingSystem extends ParallelEntityProcessingSystem {
+        final IntArray chunkSizes = new IntArray();
+
+        @SuppressWarnings("unchecked")
+        public ChunkRecordingSystem(ExecutorService executor) {
+            super(Filter.allComponents(ComponentA.class), 64, executor);
+        }
+
+        @Override
+        protected void process(Entity e) {
+        }
+
+        @Override
+        protected void processChunk(Array<Entity> entities, int start, int end) {
+            synchronized (chunkSizes) {
+                chunkSizes.add(end - start);
+            }
+            super.processChunk(entities, start, end);
+        }
+    }
+
+    @Test
+    public void testChunkSizes() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        int[] counts = { 1, 63, 64, 65, 127, 128, 129, 1000, ENTITY_COUNT };
+        for (int count : counts) {
+            World world = new World();
+            ChunkRecordingSystem system = world.setSystem(new ChunkRecordingSystem(executor));
+            world.initialize();
+            for (int i = 0; i < count; i++) {
+                Entity e = world.createEntity();
+                e.addComponent(world.createComponent(ComponentA.class));
+                e.addToWorld();
+            }
+            world.process();
+
+            IntArray sizes = system.chunkSizes;
+            int total = 0;
+            for (int i = 0; i < sizes.size; i++) {
+                total += sizes.get(i);
+                if (count >= 64) {
+                    Assert.assertTrue("chunk of " + sizes.get(i) + " for " + count, sizes.get(i) >= 64);
+                }
+                Assert.assertTrue("chunk of " + sizes.get(i) + " for " + count, sizes.get(i) < 128);
+            }
+            Assert.assertEquals(count, total);
+            if (count < 128) {
+                Assert.assertEquals(1, sizes.size);
+            }
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void testProcessesEveryEntityOnce() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        World world = new World();
+        CountingSystem system = world.setSystem(new CountingSystem(executor));
+        world.initialize();
+
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            Entity e = world.createEntity();
+            e.addComponent(world.createComponent(ComponentA.class));
+            e.addToWorld();
+        }
+
+        world.process();
+        Assert.assertEquals(1, system.joinedCount);
+        Assert.assertEquals(ENTITY_COUNT, system.total);
+
+        world.process();
+        Assert.assertEquals(2, system.joinedCount);
+        Assert.assertEquals(2 * ENTITY_COUNT, system.total);
+
+        for (Entity e : system.getActives()) {
+            Assert.assertEquals(2, e.getComponent(ComponentA.class).count);
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,108 @@
+package com.artemis.systems;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.Component;
+import com.artemis.ComponentMapper;
+import com.artemis.Entity;
+import com.artemis.Filter;
+import com.artemis.World;
+import com.badlogic.gdx.utils.Array;
+
+public class ScheduledEntityProcessingSystemTest {
+
+    static class Lifetime implements Component {
+        float delay;
+        float repeat = -1;
+
+        @Override
+        public void reset() {
+            delay = 0;
+            repeat = -1;
+        }
+    }
+
+    static class LifetimeSystem extends ScheduledEntityProcessingSystem {
+
+        ComponentMapper<Lifetime> lifetimeMapper;
+        Array<Entity> processed = new Array<Entity>();
+
+        @SuppressWarnings("unchecked")
+        public LifetimeSystem() {
+            super(Filter.allComponents(Lifetime.class));
+        }
+
+        @Override
+        public void initialize() {
+            lifetimeMapper = world.getMapper(Lifetime.class);
+        }
+
+        @Override
+        protected float getInitialDelay(Entity e) {
+            return lifetimeMapper.get(e).delay;
+        }
+
+        @Override
+        protected float processScheduled(Entity e) {
+            processed.add(e);
+            return lifetimeMapper.get(e).repeat;
+        }
+    }
+
+    private Entity create(World world, float delay, float repeat) {
+        Entity e = world.createEntity();
+        Lifetime lifetime = world.createComponent(Lifetime.class);
+        lifetime.delay = delay;
+        lifetime.repeat = repeat;
+        e.addComponent(lifetime);
+        e.addToWorld();
+        return e;
+    }
+
+    @Test
+    public void testSchedule() {
+        World world = new World();
+        LifetimeSystem system = world.setSystem(new LifetimeSystem());
+        world.initialize();
+
+        Entity e1 = create(world, 3, -1);
+        Entity e2 = create(world, 1, 2);
+        Entity e3 = create(world, 2, -1);
+
+        world.setDelta(1);
+        world.process();
+        Assert.assertEquals(1, system.processed.size);
+        Assert.assertSame(e2, system.processed.get(0));
+        system.processed.clear();
+
+        world.process();
+        Assert.assertEquals(1, system.processed.size);
+        Assert.assertSame(e3, system.processed.get(0));
+        Assert.assertFalse(system.isScheduled(e3));
+        system.processed.clear();
+
+        // e1 and the repeating e2 are due at the same time
+        world.process();
+        Assert.assertEquals(2, system.processed.size);
+        Assert.assertTrue(system.processed.contains(e1, true));
+        Assert.assertTrue(system.processed.contains(e2, true));
+        Assert.assertEquals(2, system.getRemainingDelay(e2), 0.0001f);
+        system.processed.clear();
+
+        // postpone e2 and bring e3 back
+        system.reschedule(e2, 5);
+        system.reschedule(e3, 1);
+        world.process();
+        Assert.assertEquals(1, system.processed.size);
+        Assert.assertSame(e3, system.processed.get(0));
+        Assert.assertEquals(4, system.getRemainingTimeUntilProcessing(), 0.0001f);
+        system.processed.clear();
+
+        e2.deleteFromWorld();
+        world.setDelta(10);
+        world.process();
+        world.process();
+        Assert.assertEquals(0, system.processed.size);
+    }
+}
@@ -8,6 +8,9 @@ import com.artemis.Component;
 import com.artemis.Entity;
 import com.artemis.Filter;
 import com.artemis.World;
+import com.artemis.utils.EntityTimers;
+import com.artemis.utils.TimerArray;
+import com.artemis.utils.TimingWheel;
 import com.badlogic.gdx.utils.ObjectIntMap;
 
 public class SkipEntityProcessingSystemTest {
@@ -25,8 +28,8 @@ public class SkipEntityProcessingSystemTest {
         ObjectIntMap<Entity> processCount;
 
         @SuppressWarnings("unchecked")
-        public DelaySystem() {
-            super(Filter.allComponents(ComponentA.class), DELAY, true);
+        public DelaySystem(EntityTimers timers) {
+            super(Filter.allComponents(ComponentA.class), DELAY, true, timers);
 
             processCount = new ObjectIntMap<Entity>();
         }
@@ -39,8 +42,17 @@ public class SkipEntityProcessingSystemTest {
 
     @Test
     public void testExpiration() {
+        assertExpiration(new TimingWheel(DELAY / 8));
+    }
+
+    @Test
+    public void testExpirationWithTimerArray() {
+        assertExpiration(new TimerArray());
+    }
+
+    private void assertExpiration(EntityTimers timers) {
         World world = new World();
-        world.setSystem(new DelaySystem());
+        world.setSystem(new DelaySystem(timers));
         world.initialize();
 
         Entity e = world.createEntity();
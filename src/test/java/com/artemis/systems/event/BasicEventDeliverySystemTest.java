@@ -84,4 +84,46 @@ public class BasicEventDeliverySystemTest {
         Assert.assertEquals(1, world.getSystem(ReceivingSystem.class).array.get(1));
     }
 
+    @Test
+    public void testEventQueue() {
+        int typeIndex = SystemEvent.getEventTypeIndex(TestEvent.class);
+        Assert.assertEquals(typeIndex, SystemEvent.getEventTypeIndex(TestEvent.class));
+
+        ReceivingSystem receiver = world.getSystem(ReceivingSystem.class);
+        Assert.assertEquals(0, world.getEventQueue(receiver, typeIndex).size);
+
+        world.process();
+        world.process();
+
+        Array<TestEvent> queue = world.getEventQueue(receiver, typeIndex);
+        Assert.assertEquals(1, queue.size);
+        Assert.assertSame(queue, world.getEventQueue(receiver, typeIndex));
+
+        // handled events stay in the queue but aren't copied by getEvents
+        queue.get(0).handled = true;
+        Array<TestEvent> events = new Array<TestEvent>();
+        world.getEvents(receiver, TestEvent.class, events);
+        Assert.assertEquals(0, events.size);
+    }
+
+    @Test
+    public void testEventsArePooledPerWorld() {
+        World first = new World();
+        first.setEventDeliverySystem(new BasicEventDeliverySystem());
+        first.initialize();
+        World second = new World();
+        second.setEventDeliverySystem(new BasicEventDeliverySystem());
+        second.initialize();
+
+        TestEvent posted = first.createEvent(TestEvent.class);
+        first.postEvent(null, posted);
+        first.process();
+        first.process();
+
+        // the event was delivered, then freed into the pools of its world
+        Assert.assertEquals(-1, posted.eventId);
+        Assert.assertNotSame(posted, second.createEvent(TestEvent.class));
+        Assert.assertSame(posted, first.createEvent(TestEvent.class));
+    }
+
 }
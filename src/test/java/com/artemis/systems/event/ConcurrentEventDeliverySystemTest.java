@@ -0,0 +1,105 @@
+package com.artemis.systems.event;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.World;
+import com.artemis.systems.VoidEntitySystem;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+public class ConcurrentEventDeliverySystemTest {
+
+    static class TestEvent extends SystemEvent {
+        @Override
+        protected void resetForPooling() {
+        }
+    }
+
+    static class OtherEvent extends SystemEvent {
+        @Override
+        protected void resetForPooling() {
+        }
+    }
+
+    static class ReceivingSystem extends VoidEntitySystem {
+
+        IntArray received = new IntArray();
+        Array<TestEvent> events = new Array<TestEvent>();
+
+        @Override
+        protected void processSystem() {
+            world.getEvents(this, TestEvent.class, events);
+            for (int i = 0; i < events.size; i++) {
+                received.add(events.get(i).eventId);
+            }
+        }
+    }
+
+    @Test
+    public void testOneFrameDelivery() {
+        World world = new World();
+        world.setEventDeliverySystem(new ConcurrentEventDeliverySystem());
+        ReceivingSystem system = world.setSystem(new ReceivingSystem());
+        world.initialize();
+
+        world.postEvent(null, new TestEvent());
+        world.postEvent(null, new OtherEvent());
+        world.postEvent(null, new TestEvent());
+
+        world.process();
+        Assert.assertEquals(2, system.received.size);
+        Assert.assertEquals(0, system.received.get(0));
+        Assert.assertEquals(2, system.received.get(1));
+
+        // events only last one cycle
+        world.process();
+        Assert.assertEquals(2, system.received.size);
+        Assert.assertEquals(0, system.events.size);
+
+        world.dispose();
+    }
+
+    @Test
+    public void testConcurrentPosting() throws InterruptedException {
+        final int threads = 4;
+        final int eventsPerThread = 10000;
+
+        final World world = new World();
+        world.setEventDeliverySystem(new ConcurrentEventDeliverySystem());
+        ReceivingSystem system = world.setSystem(new ReceivingSystem());
+        world.initialize();
+
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        world.postEvent(null, world.createEvent(TestEvent.class));
+                    }
+                    done.countDown();
+                }
+            }.start();
+        }
+
+        // process while the producers are posting
+        while (done.getCount() > 0) {
+            world.process();
+        }
+        world.process();
+
+        int total = threads * eventsPerThread;
+        Assert.assertEquals(total, system.received.size);
+        boolean[] seen = new boolean[total];
+        for (int i = 0; i < system.received.size; i++) {
+            int id = system.received.get(i);
+            Assert.assertFalse(seen[id]);
+            seen[id] = true;
+        }
+
+        world.dispose();
+    }
+}
@@ -0,0 +1,105 @@
+package com.artemis.systems.event;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.Array;
+
+public class EventCoalescingTest {
+
+    static class DirtyEvent extends SystemEvent {
+        int value;
+        int count = 1;
+
+        @Override
+        public void merge(SystemEvent other) {
+            DirtyEvent dirty = (DirtyEvent) other;
+            value += dirty.value;
+            count += dirty.count;
+        }
+
+        @Override
+        protected void resetForPooling() {
+            value = 0;
+            count = 1;
+        }
+    }
+
+    private static DirtyEvent event(int target, int value) {
+        DirtyEvent event = new DirtyEvent();
+        event.targetEntityId = target;
+        event.value = value;
+        return event;
+    }
+
+    private static Array<DirtyEvent> post(EventDeliverySystem eventSystem) {
+        eventSystem.postEvent(null, event(1, 1));
+        eventSystem.postEvent(null, event(2, 10));
+        eventSystem.postEvent(null, event(1, 2));
+        eventSystem.postEvent(null, event(1, 3));
+        eventSystem.update();
+
+        Array<DirtyEvent> events = new Array<DirtyEvent>();
+        eventSystem.getEvents(null, DirtyEvent.class, events);
+        return events;
+    }
+
+    @Test
+    public void testNone() {
+        Assert.assertEquals(4, post(new BasicEventDeliverySystem()).size);
+    }
+
+    @Test
+    public void testKeepFirst() {
+        BasicEventDeliverySystem eventSystem = new BasicEventDeliverySystem();
+        eventSystem.setCoalescingPolicy(DirtyEvent.class, CoalescingPolicy.KEEP_FIRST);
+
+        Array<DirtyEvent> events = post(eventSystem);
+        Assert.assertEquals(2, events.size);
+        Assert.assertEquals(1, events.get(0).value);
+        Assert.assertEquals(10, events.get(1).value);
+    }
+
+    @Test
+    public void testKeepLast() {
+        BasicEventDeliverySystem eventSystem = new BasicEventDeliverySystem();
+        eventSystem.setCoalescingPolicy(DirtyEvent.class, CoalescingPolicy.KEEP_LAST);
+
+        Array<DirtyEvent> events = post(eventSystem);
+        Assert.assertEquals(2, events.size);
+        Assert.assertEquals(3, events.get(0).value);
+        Assert.assertEquals(10, events.get(1).value);
+    }
+
+    @Test
+    public void testMerge() {
+        BasicEventDeliverySystem eventSystem = new BasicEventDeliverySystem();
+        eventSystem.setCoalescingPolicy(DirtyEvent.class, CoalescingPolicy.MERGE);
+
+        Array<DirtyEvent> events = post(eventSystem);
+        Assert.assertEquals(2, events.size);
+        Assert.assertEquals(6, events.get(0).value);
+        Assert.assertEquals(3, events.get(0).count);
+        Assert.assertEquals(10, events.get(1).value);
+
+        // keys only last for a single cycle
+        events = post(eventSystem);
+        Assert.assertEquals(2, events.size);
+        Assert.assertEquals(6, events.get(0).value);
+    }
+
+    @Test
+    public void testBufferedDeliverySystems() {
+        BasicEventDeliverySystem concurrent = new ConcurrentEventDeliverySystem();
+        concurrent.setCoalescingPolicy(DirtyEvent.class, CoalescingPolicy.KEEP_LAST);
+        Array<DirtyEvent> events = post(concurrent);
+        Assert.assertEquals(2, events.size);
+        Assert.assertEquals(3, events.get(0).value);
+
+        BasicEventDeliverySystem threadLocal = new ThreadLocalEventDeliverySystem();
+        threadLocal.setCoalescingPolicy(DirtyEvent.class, CoalescingPolicy.MERGE);
+        events = post(threadLocal);
+        Assert.assertEquals(2, events.size);
+        Assert.assertEquals(6, events.get(0).value);
+    }
+}
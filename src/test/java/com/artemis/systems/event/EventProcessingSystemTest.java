@@ -8,7 +8,9 @@ import com.artemis.Component;
 import com.artemis.Entity;
 import com.artemis.Filter;
 import com.artemis.World;
+import com.artemis.systems.EntitySystem;
 import com.artemis.systems.VoidEntitySystem;
+import com.badlogic.gdx.utils.Array;
 
 public class EventProcessingSystemTest {
 
@@ -160,6 +162,64 @@ public class EventProcessingSystemTest {
         }
     }
 
+    /**
+     * Event system implementing only the interface, without queues.
+     */
+    static class ListEventDeliverySystem implements EventDeliverySystem {
+        Array<SystemEvent> posted = new Array<SystemEvent>();
+        Array<SystemEvent> current = new Array<SystemEvent>();
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void update() {
+            current.clear();
+            current.addAll(posted);
+            posted.clear();
+        }
+
+        @Override
+        public void postEvent(EntitySystem sender, SystemEvent event) {
+            event.sender = sender;
+            posted.add(event);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T extends SystemEvent> void getEvents(EntitySystem pollingSystem, Class<T> eventType, Array<T> events) {
+            for (int i = 0; i < current.size; i++) {
+                if (current.get(i).getClass() == eventType) {
+                    events.add((T) current.get(i));
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+
+    @Test
+    public void testCustomEventDeliverySystem() {
+        World world = new World();
+        world.setEventDeliverySystem(new ListEventDeliverySystem());
+        world.setSystem(new PublishingSystem());
+        ReceivingSystem3 receiving = world.setSystem(new ReceivingSystem3());
+        VoidReceivingSystem2 voidReceiving = world.setSystem(new VoidReceivingSystem2());
+        world.initialize();
+
+        Entity e = world.createEntity();
+        e.addComponent(world.createComponent(ComponentA.class));
+        world.addEntity(e);
+
+        world.process();
+        world.process();
+        Assert.assertEquals(3, receiving.count);
+        Assert.assertEquals(2, voidReceiving.count);
+    }
+
     @Test
     public void testEventProcessingSystems() {
         World world = new World();
@@ -211,4 +271,42 @@ public class EventProcessingSystemTest {
         Assert.assertEquals(4, world.getSystem(VoidReceivingSystem2.class).count);
         Assert.assertEquals(6, world.getSystem(VoidReceivingSystem3.class).count);
     }
+
+    @Test
+    public void testTargetedEvents() {
+        World world = new World();
+        world.setEventDeliverySystem(new BasicEventDeliverySystem());
+        ReceivingSystem1 receiving1 = world.setSystem(new ReceivingSystem1());
+        ReceivingSystem2 receiving2 = world.setSystem(new ReceivingSystem2());
+        VoidReceivingSystem1 voidReceiving = world.setSystem(new VoidReceivingSystem1());
+        world.initialize();
+
+        Entity e1 = world.createEntity();
+        e1.addComponent(world.createComponent(ComponentA.class));
+        world.addEntity(e1);
+        Entity e2 = world.createEntity();
+        e2.addComponent(world.createComponent(ComponentA.class));
+        world.addEntity(e2);
+        Entity other = world.createEntity();
+        world.addEntity(other);
+        world.process();
+
+        // only processed with the target entity
+        world.postEvent(null, world.createEvent(TestEvent1.class).setTargetEntity(e1));
+        // the target isn't an active of the systems
+        world.postEvent(null, world.createEvent(TestEvent1.class).setTargetEntity(other));
+        world.process();
+
+        Assert.assertEquals(1, receiving1.count);
+        Assert.assertEquals(1, receiving2.count);
+        Assert.assertEquals(2, voidReceiving.count);
+
+        // only delivered to the target system
+        world.postEvent(null, world.createEvent(TestEvent1.class).setTargetSystem(receiving1));
+        world.process();
+
+        Assert.assertEquals(3, receiving1.count);
+        Assert.assertEquals(1, receiving2.count);
+        Assert.assertEquals(2, voidReceiving.count);
+    }
 }
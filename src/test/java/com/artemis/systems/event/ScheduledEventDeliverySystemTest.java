@@ -0,0 +1,161 @@
+package com.artemis.systems.event;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.artemis.World;
+import com.badlogic.gdx.utils.Array;
+
+public class ScheduledEventDeliverySystemTest {
+
+    static class TestEvent extends SystemEvent {
+        int value;
+
+        @Override
+        protected void resetForPooling() {
+            value = 0;
+        }
+    }
+
+    World world;
+    ScheduledEventDeliverySystem eventSystem;
+    Array<TestEvent> events;
+
+    @Before
+    public void before() {
+        world = new World();
+        eventSystem = new ScheduledEventDeliverySystem(world);
+        world.setEventDeliverySystem(eventSystem);
+        world.initialize();
+        events = new Array<TestEvent>();
+    }
+
+    private TestEvent post(int value) {
+        TestEvent event = new TestEvent();
+        event.value = value;
+        eventSystem.postEvent(null, event);
+        return event;
+    }
+
+    private void update(float delta) {
+        world.setDelta(delta);
+        eventSystem.update();
+        world.getEvents(null, TestEvent.class, events);
+    }
+
+    @Test
+    public void testPriority() {
+        post(1);
+        post(2).priority = 5;
+        post(3);
+        post(4).priority = -1;
+        update(0);
+
+        Assert.assertEquals(4, events.size);
+        Assert.assertEquals(2, events.get(0).value);
+        Assert.assertEquals(1, events.get(1).value);
+        Assert.assertEquals(3, events.get(2).value);
+        Assert.assertEquals(4, events.get(3).value);
+    }
+
+    @Test
+    public void testFrameDelay() {
+        post(1).frameDelay = 2;
+        post(2);
+        update(0);
+        Assert.assertEquals(1, events.size);
+        Assert.assertEquals(2, events.get(0).value);
+        Assert.assertEquals(1, eventSystem.getScheduledCount());
+
+        update(0);
+        Assert.assertEquals(0, events.size);
+
+        update(0);
+        Assert.assertEquals(1, events.size);
+        Assert.assertEquals(1, events.get(0).value);
+        Assert.assertEquals(0, eventSystem.getScheduledCount());
+
+        update(0);
+        Assert.assertEquals(0, events.size);
+    }
+
+    @Test
+    public void testTimeDelay() {
+        post(1).delay = 1f;
+        post(2).delay = 0.5f;
+        post(3).delay = 0.5f;
+        update(0.25f);
+        Assert.assertEquals(0, events.size);
+
+        update(0.25f);
+        Assert.assertEquals(0, events.size);
+
+        update(0.25f);
+        Assert.assertEquals(2, events.size);
+        Assert.assertEquals(2, events.get(0).value);
+        Assert.assertEquals(3, events.get(1).value);
+
+        update(0.5f);
+        Assert.assertEquals(1, events.size);
+        Assert.assertEquals(1, events.get(0).value);
+    }
+
+    @Test
+    public void testFrameAndTimeDelay() {
+        TestEvent event = post(1);
+        event.frameDelay = 1;
+        event.delay = 1f;
+
+        update(1f);
+        Assert.assertEquals(0, events.size);
+        update(1f);
+        Assert.assertEquals(0, events.size);
+        update(1f);
+        Assert.assertEquals(1, events.size);
+    }
+
+    @Test
+    public void testWorldsSortingOnSeveralThreads() throws InterruptedException {
+        final AtomicBoolean correct = new AtomicBoolean(true);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        World world = new World();
+                        ScheduledEventDeliverySystem eventSystem = new ScheduledEventDeliverySystem(world);
+                        world.setEventDeliverySystem(eventSystem);
+                        world.initialize();
+                        Array<TestEvent> events = new Array<TestEvent>();
+                        for (int frame = 0; frame < 200; frame++) {
+                            for (int i = 0; i < 200; i++) {
+                                TestEvent event = world.createEvent(TestEvent.class);
+                                event.priority = (i * 7919 + frame) % 100;
+                                eventSystem.postEvent(null, event);
+                            }
+                            eventSystem.update();
+                            world.getEvents(null, TestEvent.class, events);
+                            for (int i = 1; i < events.size; i++) {
+                                if (events.get(i - 1).priority < events.get(i).priority) {
+                                    correct.set(false);
+                                }
+                            }
+                            events.clear();
+                        }
+                    } catch (RuntimeException e) {
+                        correct.set(false);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue(correct.get());
+    }
+}
@@ -0,0 +1,186 @@
+package com.artemis.systems.event;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.World;
+import com.artemis.systems.VoidEntitySystem;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+public class ThreadLocalEventDeliverySystemTest {
+
+    static class TestEvent extends SystemEvent {
+        @Override
+        protected void resetForPooling() {
+        }
+    }
+
+    static class OtherEvent extends SystemEvent {
+        @Override
+        protected void resetForPooling() {
+        }
+    }
+
+    static class ReceivingSystem extends VoidEntitySystem {
+
+        IntArray received = new IntArray();
+        Array<TestEvent> events = new Array<TestEvent>();
+        boolean ordered = true;
+
+        @Override
+        protected void processSystem() {
+            world.getEvents(this, TestEvent.class, events);
+            for (int i = 0; i < events.size; i++) {
+                received.add(events.get(i).eventId);
+                if (i > 0 && events.get(i - 1).eventId > events.get(i).eventId) {
+                    ordered = false;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOneFrameDelivery() {
+        World world = new World();
+        world.setEventDeliverySystem(new ThreadLocalEventDeliverySystem());
+        ReceivingSystem system = world.setSystem(new ReceivingSystem());
+        world.initialize();
+
+        world.postEvent(null, new TestEvent());
+        world.postEvent(null, new OtherEvent());
+        world.postEvent(null, new TestEvent());
+
+        world.process();
+        Assert.assertEquals(2, system.received.size);
+        Assert.assertEquals(0, system.received.get(0));
+        Assert.assertEquals(2, system.received.get(1));
+
+        // events only last one cycle
+        world.process();
+        Assert.assertEquals(2, system.received.size);
+        Assert.assertEquals(0, system.events.size);
+
+        world.dispose();
+    }
+
+    @Test
+    public void testConcurrentPosting() throws InterruptedException {
+        final int threads = 4;
+        final int eventsPerThread = 10000;
+
+        final World world = new World();
+        world.setEventDeliverySystem(new ThreadLocalEventDeliverySystem());
+        ReceivingSystem system = world.setSystem(new ReceivingSystem());
+        world.initialize();
+
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        world.postEvent(null, world.createEvent(TestEvent.class));
+                    }
+                    done.countDown();
+                }
+            }.start();
+        }
+
+        // process while the producers are posting
+        while (done.getCount() > 0) {
+            world.process();
+        }
+        world.process();
+
+        // all events are received once, each frame in id order
+        int total = threads * eventsPerThread;
+        Assert.assertEquals(total, system.received.size);
+        Assert.assertTrue(system.ordered);
+        boolean[] seen = new boolean[total];
+        for (int i = 0; i < system.received.size; i++) {
+            int id = system.received.get(i);
+            Assert.assertFalse(seen[id]);
+            seen[id] = true;
+        }
+
+        world.dispose();
+    }
+
+    @Test
+    public void testBuffersOfDeadThreadsAreDropped() throws InterruptedException {
+        final World world = new World();
+        ThreadLocalEventDeliverySystem eventSystem = new ThreadLocalEventDeliverySystem();
+        world.setEventDeliverySystem(eventSystem);
+        ReceivingSystem system = world.setSystem(new ReceivingSystem());
+        world.initialize();
+
+        int threads = 16;
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    world.postEvent(null, world.createEvent(TestEvent.class));
+                }
+            };
+            thread.start();
+            thread.join();
+        }
+        Assert.assertEquals(threads, eventSystem.buffers.size);
+
+        // the events of the dead threads are still delivered
+        world.process();
+        Assert.assertEquals(threads, system.received.size);
+
+        // then their drained buffers are dropped
+        world.process();
+        Assert.assertEquals(0, eventSystem.buffers.size);
+
+        world.dispose();
+    }
+
+    @Test
+    public void testThreadDyingBetweenUpdates() throws InterruptedException {
+        final World world = new World();
+        ThreadLocalEventDeliverySystem eventSystem = new ThreadLocalEventDeliverySystem();
+        world.setEventDeliverySystem(eventSystem);
+        ReceivingSystem system = world.setSystem(new ReceivingSystem());
+        world.initialize();
+
+        final CountDownLatch posted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                world.postEvent(null, world.createEvent(TestEvent.class));
+                posted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                world.postEvent(null, world.createEvent(TestEvent.class));
+            }
+        };
+        thread.start();
+        posted.await();
+
+        // the thread is alive while its first event is merged
+        world.process();
+        Assert.assertEquals(1, system.received.size);
+        Assert.assertEquals(1, eventSystem.buffers.size);
+
+        // it posts again and dies before the next update
+        release.countDown();
+        thread.join();
+        world.process();
+        Assert.assertEquals(2, system.received.size);
+
+        world.process();
+        Assert.assertEquals(0, eventSystem.buffers.size);
+
+        world.dispose();
+    }
+}
@@ -0,0 +1,143 @@
+package com.artemis.systems.scheduler;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.Component;
+import com.artemis.ComponentMapper;
+import com.artemis.Entity;
+import com.artemis.Filter;
+import com.artemis.World;
+import com.artemis.systems.EntityProcessingSystem;
+import com.artemis.systems.VoidEntitySystem;
+
+public class ParallelSystemSchedulerTest {
+
+    static class ComponentA implements Component {
+        int value;
+
+        @Override
+        public void reset() {
+            value = 0;
+        }
+    }
+
+    static class ComponentB implements Component {
+        int value;
+
+        @Override
+        public void reset() {
+            value = 0;
+        }
+    }
+
+    @Writes(ComponentA.class)
+    static class WritingSystem extends EntityProcessingSystem {
+        ComponentMapper<ComponentA> aMapper;
+
+        @SuppressWarnings("unchecked")
+        public WritingSystem() {
+            super(Filter.allComponents(ComponentA.class));
+        }
+
+        @Override
+        public void initialize() {
+            aMapper = world.getMapper(ComponentA.class);
+        }
+
+        @Override
+        protected void process(Entity e) {
+            aMapper.get(e).value++;
+        }
+    }
+
+    @Writes(ComponentB.class)
+    static class CopyingSystem extends EntityProcessingSystem {
+        ComponentMapper<ComponentA> aMapper;
+        ComponentMapper<ComponentB> bMapper;
+
+        @SuppressWarnings("unchecked")
+        public CopyingSystem() {
+            super(Filter.allComponents(ComponentA.class, ComponentB.class));
+        }
+
+        @Override
+        public void initialize() {
+            aMapper = world.getMapper(ComponentA.class);
+            bMapper = world.getMapper(ComponentB.class);
+        }
+
+        @Override
+        protected void process(Entity e) {
+            bMapper.get(e).value = aMapper.get(e).value;
+        }
+    }
+
+    @Reads({})
+    static class BarrierSystem extends VoidEntitySystem {
+        final CyclicBarrier barrier;
+        boolean passed;
+
+        BarrierSystem(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        protected void processSystem() {
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+                passed = true;
+            } catch (Exception e) {
+                passed = false;
+            }
+        }
+    }
+
+    static class OtherBarrierSystem extends BarrierSystem {
+        OtherBarrierSystem(CyclicBarrier barrier) {
+            super(barrier);
+        }
+    }
+
+    @Test
+    public void testConflictingSystemsKeepOrder() {
+        World world = new World();
+        world.setSystemScheduler(new ParallelSystemScheduler(4));
+        world.setSystem(new WritingSystem());
+        CopyingSystem copying = world.setSystem(new CopyingSystem());
+        world.initialize();
+
+        Entity e = world.createEntity();
+        e.addComponent(world.createComponent(ComponentA.class));
+        e.addComponent(world.createComponent(ComponentB.class));
+        e.addToWorld();
+
+        for (int i = 1; i <= 100; i++) {
+            world.process();
+            Assert.assertEquals(i, e.getComponent(ComponentA.class).value);
+            Assert.assertEquals(i, e.getComponent(ComponentB.class).value);
+        }
+        Assert.assertEquals(1, copying.getActives().size);
+        world.dispose();
+    }
+
+    @Test
+    public void testIndependentSystemsOverlap() {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        World world = new World();
+        world.setSystemScheduler(new ParallelSystemScheduler(2));
+        BarrierSystem first = world.setSystem(new BarrierSystem(barrier));
+        BarrierSystem second = world.setSystem(new OtherBarrierSystem(barrier));
+        world.initialize();
+
+        // both systems only pass the barrier if they run at the same time
+        world.process();
+
+        Assert.assertTrue(first.passed);
+        Assert.assertTrue(second.passed);
+        world.dispose();
+    }
+}
@@ -0,0 +1,71 @@
+package com.artemis.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ClassIndexRegistryTest {
+
+    private static final Class<?>[] TYPES = { Object.class, String.class, Integer.class, Long.class,
+        Float.class, Double.class, Byte.class, Short.class, Character.class, Boolean.class, Number.class,
+        List.class, ArrayList.class, Random.class, Thread.class, Runnable.class, Callable.class,
+        Future.class, Math.class, System.class };
+
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        final ClassIndexRegistry<Object> registry = new ClassIndexRegistry<Object>();
+        int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+            for (int t = 0; t < threads; t++) {
+                final long seed = t;
+                results.add(executor.submit(new Callable<int[]>() {
+                    @Override
+                    public int[] call() throws Exception {
+                        List<Integer> order = new ArrayList<Integer>();
+                        for (int i = 0; i < TYPES.length; i++) {
+                            order.add(i);
+                        }
+                        Collections.shuffle(order, new Random(seed));
+                        start.await();
+                        int[] indices = new int[TYPES.length];
+                        for (int i : order) {
+                            indices[i] = registry.getIndex(TYPES[i]);
+                        }
+                        return indices;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int[] expected = results.get(0).get();
+            for (Future<int[]> result : results) {
+                Assert.assertArrayEquals(expected, result.get());
+            }
+
+            // indices are dense
+            boolean[] used = new boolean[TYPES.length];
+            for (int index : expected) {
+                Assert.assertFalse(used[index]);
+                used[index] = true;
+            }
+            Assert.assertEquals(TYPES.length, registry.size());
+            for (int i = 0; i < TYPES.length; i++) {
+                Assert.assertSame(TYPES[i], registry.getType(expected[i]));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
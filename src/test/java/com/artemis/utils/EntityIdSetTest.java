@@ -0,0 +1,49 @@
+package com.artemis.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.Entity;
+import com.artemis.World;
+import com.badlogic.gdx.utils.IntArray;
+
+public class EntityIdSetTest {
+
+    @Test
+    public void testAddRemoveInIdOrder() {
+        World world = new World();
+        EntityIdSet set = new EntityIdSet();
+
+        Entity e0 = new Entity(world, 0);
+        Entity e5 = new Entity(world, 5);
+        Entity e70 = new Entity(world, 70);
+        Entity e3 = new Entity(world, 3);
+
+        Assert.assertTrue(set.add(e70));
+        Assert.assertTrue(set.add(e3));
+        Assert.assertTrue(set.add(e5));
+        Assert.assertTrue(set.add(e0));
+        Assert.assertFalse(set.add(e3));
+        Assert.assertEquals(4, set.size);
+
+        Assert.assertTrue(set.remove(e5));
+        Assert.assertFalse(set.remove(e5));
+        Assert.assertFalse(set.contains(e5));
+        Assert.assertTrue(set.contains(e70));
+        Assert.assertEquals(3, set.size);
+
+        IntArray ids = new IntArray();
+        for (int id = set.nextId(0); id >= 0; id = set.nextId(id + 1)) {
+            ids.add(set.get(id).id);
+        }
+        Assert.assertArrayEquals(new int[] {0, 3, 70}, ids.toArray());
+
+        set.clear();
+        Assert.assertEquals(0, set.size);
+        Assert.assertEquals(-1, set.nextId(0));
+        Assert.assertNull(set.get(70));
+
+        Assert.assertTrue(set.add(e5));
+        Assert.assertEquals(5, set.nextId(0));
+    }
+}
@@ -1,6 +1,7 @@
 package com.artemis.utils;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import org.junit.*;
 
 public class IdentifierTest {
@@ -71,6 +72,31 @@ public class IdentifierTest {
         }
     }
 
+    @Test
+    public void testCheckOutBlock() {
+        IdentifierPool pool = new IdentifierPool();
+        for (int i = 0; i < ID_COUNT; i++) {
+            pool.checkOut();
+        }
+        for (int i = 0; i < ID_COUNT; i++) {
+            pool.checkIn(i);
+        }
+
+        IntArray ids = new IntArray();
+        pool.checkOut(ID_COUNT + 3, ids);
+
+        Assert.assertEquals(ID_COUNT + 3, ids.size);
+        Assert.assertEquals(0, pool.ids.size);
+        for (int i = 0; i < ids.size; i++) {
+            for (int j = i + 1; j < ids.size; j++) {
+                Assert.assertTrue(ids.get(i) != ids.get(j));
+            }
+        }
+        // new ids are a contiguous range
+        Assert.assertEquals(ids.get(ID_COUNT) + 1, ids.get(ID_COUNT + 1));
+        Assert.assertEquals(ids.get(ID_COUNT) + 2, ids.get(ID_COUNT + 2));
+    }
+
     @Test
     public void testDispose() {
         identifierPool.dispose();
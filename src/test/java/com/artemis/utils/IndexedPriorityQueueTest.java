@@ -0,0 +1,58 @@
+package com.artemis.utils;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IndexedPriorityQueueTest {
+
+    @Test
+    public void testPollInPriorityOrder() {
+        IndexedPriorityQueue queue = new IndexedPriorityQueue(4);
+        Random random = new Random(7);
+        int count = 500;
+        for (int i = 0; i < count; i++) {
+            queue.put(i, random.nextDouble());
+        }
+        // change the priorities of every third id and remove every fifth
+        for (int i = 0; i < count; i += 3) {
+            queue.put(i, random.nextDouble());
+        }
+        int removed = 0;
+        for (int i = 0; i < count; i += 5) {
+            Assert.assertTrue(queue.remove(i));
+            Assert.assertFalse(queue.contains(i));
+            removed++;
+        }
+        Assert.assertEquals(count - removed, queue.size());
+
+        double last = Double.NEGATIVE_INFINITY;
+        while (!queue.isEmpty()) {
+            double priority = queue.peekPriority();
+            int id = queue.poll();
+            Assert.assertTrue(id % 5 != 0);
+            Assert.assertTrue(priority >= last);
+            last = priority;
+        }
+        Assert.assertEquals(-1, queue.poll());
+    }
+
+    @Test
+    public void testReschedule() {
+        IndexedPriorityQueue queue = new IndexedPriorityQueue();
+        queue.put(1, 10);
+        queue.put(2, 20);
+        queue.put(3, 30);
+
+        queue.put(3, 5);
+        Assert.assertEquals(3, queue.peek());
+        queue.put(3, 25);
+        Assert.assertEquals(1, queue.peek());
+        Assert.assertEquals(25, queue.getPriority(3), 0);
+
+        queue.clear();
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertFalse(queue.contains(1));
+    }
+}
@@ -0,0 +1,58 @@
+package com.artemis.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.artemis.Component;
+import com.badlogic.gdx.utils.Array;
+
+public class PackedComponentStorageTest {
+
+    static class ComponentA implements Component {
+        @Override
+        public void reset() {
+        }
+    }
+
+    @Test
+    public void testSetGetRemove() {
+        PackedComponentStorage<ComponentA> storage = new PackedComponentStorage<ComponentA>(1);
+        ComponentA a = new ComponentA();
+        ComponentA b = new ComponentA();
+        ComponentA c = new ComponentA();
+
+        Assert.assertNull(storage.set(3, a));
+        Assert.assertNull(storage.set(1000000, b));
+        Assert.assertNull(storage.set(7, c));
+        Assert.assertEquals(3, storage.size());
+
+        Assert.assertSame(a, storage.get(3));
+        Assert.assertSame(b, storage.get(1000000));
+        Assert.assertSame(c, storage.get(7));
+        Assert.assertNull(storage.get(4));
+        Assert.assertNull(storage.get(2000000));
+
+        // removing the first slot moves the last component into it
+        Assert.assertSame(a, storage.remove(3));
+        Assert.assertNull(storage.get(3));
+        Assert.assertEquals(2, storage.size());
+        Assert.assertSame(c, storage.items[0]);
+        Assert.assertEquals(7, storage.entityIds[0]);
+        Assert.assertSame(c, storage.get(7));
+        Assert.assertSame(b, storage.get(1000000));
+
+        // stale index entries must not be mistaken for components
+        Assert.assertNull(storage.remove(3));
+
+        ComponentA d = new ComponentA();
+        Assert.assertSame(c, storage.set(7, d));
+        Assert.assertSame(d, storage.get(7));
+        Assert.assertEquals(2, storage.size());
+
+        Array<Component> removed = new Array<Component>();
+        storage.removeAll(removed);
+        Assert.assertEquals(2, removed.size);
+        Assert.assertEquals(0, storage.size());
+        Assert.assertNull(storage.get(7));
+    }
+}
@@ -0,0 +1,54 @@
+package com.artemis.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.IntArray;
+
+public class TimerArrayTest {
+
+    @Test
+    public void testUpdate() {
+        TimerArray timers = new TimerArray(2);
+        IntArray fired = new IntArray();
+
+        timers.start(10, 1, 0);
+        timers.start(4, 2, 0.5f);
+        timers.start(7, 3, 0);
+        Assert.assertEquals(3, timers.size());
+
+        timers.update(1, fired);
+        Assert.assertEquals(1, fired.size);
+        Assert.assertEquals(10, fired.get(0));
+        Assert.assertFalse(timers.isRunning(10));
+        Assert.assertEquals(1, timers.getRemaining(4), 0);
+        fired.clear();
+
+        // 4 fires and continues with its period
+        timers.update(1.25f, fired);
+        Assert.assertEquals(1, fired.size);
+        Assert.assertEquals(4, fired.get(0));
+        Assert.assertEquals(0.25f, timers.getRemaining(4), 0.0001f);
+        fired.clear();
+
+        Assert.assertTrue(timers.cancel(4));
+        Assert.assertFalse(timers.cancel(4));
+        timers.update(1, fired);
+        Assert.assertEquals(1, fired.size);
+        Assert.assertEquals(7, fired.get(0));
+        Assert.assertEquals(0, timers.size());
+    }
+
+    @Test
+    public void testFireOncePerUpdate() {
+        TimerArray timers = new TimerArray();
+        IntArray fired = new IntArray();
+        timers.start(0, 1, 1);
+
+        timers.update(2.5f, fired);
+        timers.update(0, fired);
+        timers.update(0, fired);
+        Assert.assertEquals(2, fired.size);
+        Assert.assertEquals(0.5f, timers.getRemaining(0), 0.0001f);
+    }
+}
@@ -0,0 +1,118 @@
+package com.artemis.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.IntArray;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testFireOnce() {
+        TimingWheel wheel = new TimingWheel(1);
+        IntArray fired = new IntArray();
+
+        wheel.start(3, 2.5f, 0);
+        wheel.start(7, 10, 0);
+        Assert.assertEquals(2, wheel.size());
+
+        wheel.update(2, fired);
+        Assert.assertEquals(0, fired.size);
+
+        wheel.update(0.5f, fired);
+        Assert.assertEquals(1, fired.size);
+        Assert.assertEquals(3, fired.get(0));
+        Assert.assertFalse(wheel.isRunning(3));
+        Assert.assertEquals(1, wheel.size());
+        fired.clear();
+
+        Assert.assertTrue(wheel.cancel(7));
+        Assert.assertFalse(wheel.cancel(7));
+        wheel.update(100, fired);
+        Assert.assertEquals(0, fired.size);
+        Assert.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRepeatCarriesRemainder() {
+        TimingWheel wheel = new TimingWheel(0.25f);
+        IntArray fired = new IntArray();
+        wheel.start(0, 1, 1);
+
+        wheel.update(1.5f, fired);
+        Assert.assertEquals(1, fired.size);
+        fired.clear();
+
+        wheel.update(0.5f, fired);
+        Assert.assertEquals(1, fired.size);
+        fired.clear();
+
+        // fires at most once per update
+        wheel.update(3, fired);
+        Assert.assertEquals(1, fired.size);
+        fired.clear();
+        wheel.update(0, fired);
+        Assert.assertEquals(1, fired.size);
+        Assert.assertTrue(wheel.isRunning(0));
+    }
+
+    @Test
+    public void testCascade() {
+        TimingWheel wheel = new TimingWheel(1);
+        IntArray fired = new IntArray();
+        int[] delays = { 63, 64, 65, 4095, 4096, 300000, 16777216 };
+        for (int i = 0; i < delays.length; i++) {
+            wheel.start(i, delays[i], 0);
+        }
+
+        float time = 0;
+        for (int i = 0; i < delays.length; i++) {
+            float step = delays[i] - time;
+            wheel.update(step - 1, fired);
+            Assert.assertEquals(0, fired.size);
+            wheel.update(1, fired);
+            Assert.assertEquals(1, fired.size);
+            Assert.assertEquals(i, fired.get(0));
+            fired.clear();
+            time = delays[i];
+        }
+        Assert.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testOverflow() {
+        // 64^6 ticks of a millionth cover about 68719 time units
+        TimingWheel wheel = new TimingWheel(0.000001f);
+        IntArray fired = new IntArray();
+        wheel.start(1, 100000, 0);
+
+        wheel.update(60000, fired);
+        wheel.update(39999, fired);
+        Assert.assertEquals(0, fired.size);
+        wheel.update(1, fired);
+        Assert.assertEquals(1, fired.size);
+    }
+
+    @Test
+    public void testManyTimers() {
+        TimingWheel wheel = new TimingWheel(0.1f);
+        IntArray fired = new IntArray();
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            wheel.start(i, i * 0.37f, 0);
+        }
+
+        int total = 0;
+        for (int frame = 0; frame < 4000; frame++) {
+            wheel.update(0.1f, fired);
+            for (int i = 0; i < fired.size; i++) {
+                int id = fired.get(i);
+                Assert.assertTrue(id * 0.37f <= wheel.getTime() + 0.0001f);
+                Assert.assertTrue(id * 0.37f > wheel.getTime() - 0.1001f);
+            }
+            total += fired.size;
+            fired.clear();
+        }
+        Assert.assertEquals(count, total);
+    }
+}